@@ -12,6 +12,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.SpawnerSpawnEvent;
 import org.bukkit.event.entity.EntitySpawnEvent;
 import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.world.WorldLoadEvent;
 
 public class GlobalEventHandlers implements Listener {
     private final SmartSpawner plugin;
@@ -23,6 +24,12 @@ public class GlobalEventHandlers implements Listener {
         this.spawnerManager = plugin.getSpawnerManager();
     }
 
+    // Load stored spawners of worlds that were not loaded at startup
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        spawnerManager.loadWorldSpawners(event.getWorld().getName());
+    }
+
     // Prevent spawner from spawning mobs
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onCreatureSpawn(SpawnerSpawnEvent event){
@@ -72,22 +79,10 @@ public class GlobalEventHandlers implements Listener {
 
     // Check if there's a zombie spawner nearby
     private boolean isNearZombieSpawner(Location location) {
-        // Check in a cube area around the location
-        for (int x = -CHECK_RADIUS; x <= CHECK_RADIUS; x++) {
-            for (int y = -CHECK_RADIUS; y <= CHECK_RADIUS; y++) {
-                for (int z = -CHECK_RADIUS; z <= CHECK_RADIUS; z++) {
-                    Location checkLoc = new Location(
-                            location.getWorld(),
-                            location.getBlockX() + x,
-                            location.getBlockY() + y,
-                            location.getBlockZ() + z
-                    );
-
-                    SpawnerData spawner = spawnerManager.getSpawnerByLocation(checkLoc);
-                    if (spawner != null && (spawner.getEntityType() == EntityType.ZOMBIE || spawner.getEntityType() == EntityType.ZOMBIFIED_PIGLIN)) {
-                        return true;
-                    }
-                }
+        // Query the chunk index for spawners in a cube area around the location
+        for (SpawnerData spawner : spawnerManager.getSpawnersInRange(location, CHECK_RADIUS)) {
+            if (spawner.getEntityType() == EntityType.ZOMBIE || spawner.getEntityType() == EntityType.ZOMBIFIED_PIGLIN) {
+                return true;
             }
         }
         return false;
@@ -43,7 +43,10 @@ import github.nighter.smartspawner.spawner.interactions.type.SpawnEggHandler;
 import github.nighter.smartspawner.spawner.item.SpawnerItemFactory;
 import github.nighter.smartspawner.spawner.loot.EntityLootRegistry;
 import github.nighter.smartspawner.spawner.lootgen.SpawnerRangeChecker;
+import github.nighter.smartspawner.spawner.properties.InventorySortMode;
 import github.nighter.smartspawner.spawner.properties.SpawnerManager;
+import github.nighter.smartspawner.spawner.properties.SpawnerProfile;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
 import github.nighter.smartspawner.spawner.utils.SpawnerFileHandler;
 import github.nighter.smartspawner.spawner.utils.SpawnerMobHeadTexture;
 import github.nighter.smartspawner.spawner.lootgen.SpawnerLootGenerator;
@@ -121,6 +124,8 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
     private CustomEconomyManager customEconomyManager;
     private EntityLootRegistry entityLootRegistry;
     private UpdateChecker updateChecker;
+    // Compiled spawner settings, swapped as a whole on reload
+    private volatile SpawnerProfile spawnerProfile;
 
     // Set up commands
     private CommandHandler commandHandler;
@@ -235,12 +240,18 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
         this.languageManager = new LanguageManager(this);
         this.languageUpdater = new LanguageUpdater(this);
         this.messageService = new MessageService(this, languageManager);
+        loadSpawnerProfile();
+    }
+
+    public void loadSpawnerProfile() {
+        this.spawnerProfile = SpawnerProfile.fromConfig(this);
     }
 
     private void initializeEconomyComponents() {
         this.shopIntegrationManager = new ShopIntegrationManager(this);
         this.itemPriceManager = new ItemPriceManager(this);
         this.itemPriceManager.init();
+        configureVirtualInventories();
 
         // Only initialize if custom sell prices should be used
         if (getConfig().getBoolean("custom_sell_prices.enabled", false)) {
@@ -305,6 +316,7 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
         pm.registerEvents(spawnerClickManager, this);
         pm.registerEvents(spawnerMenuAction, this);
         pm.registerEvents(spawnerStackerHandler, this);
+        pm.registerEvents(rangeChecker, this);
 
         // Register shop integration listeners if available
         if (shopIntegrationManager.isShopGUIPlusEnabled()) {
@@ -410,6 +422,7 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
     public void reload() {
         shopIntegrationManager.reload();
         itemPriceManager.reload();
+        configureVirtualInventories();
         clearItemCache();
 
         // Only initialize CustomEconomyManager if custom sell prices are enabled
@@ -431,6 +444,12 @@ public class SmartSpawner extends JavaPlugin implements SmartSpawnerPlugin {
         }
     }
 
+    private void configureVirtualInventories() {
+        String sortMode = getConfig().getString("spawner_properties.default.storage_sort", "MATERIAL");
+        VirtualInventory.configureSorting(InventorySortMode.fromConfig(sortMode), itemPriceManager::getPrice);
+        VirtualInventory.configureSignatureCache(getConfig().getInt("performance.signature_cache_size", 1024));
+    }
+
     public void reloadStaticUI() {
         this.spawnerStorageUI = new SpawnerStorageUI(this);
         this.filterConfigUI = new FilterConfigUI(this);
@@ -54,6 +54,7 @@ public class ReloadCommand implements CommandExecutor, TabCompleter {
             // Reload all configurations
             plugin.reloadConfig();
             plugin.refreshTimeCache();
+            plugin.loadSpawnerProfile();
 
             // Reload components in dependency order
             plugin.setUpHopperHandler();
@@ -8,7 +8,6 @@ import github.nighter.smartspawner.spawner.properties.SpawnerManager;
 import github.nighter.smartspawner.spawner.properties.VirtualInventory;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import org.bukkit.*;
-import org.bukkit.block.BlockState;
 import org.bukkit.block.Hopper;
 import org.bukkit.event.Listener;
 import org.bukkit.block.Block;
@@ -18,6 +17,7 @@ import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
@@ -27,15 +27,52 @@ import java.util.logging.Level;
 
 public class HopperHandler implements Listener {
     private final SmartSpawner plugin;
-    private final Map<Location, Scheduler.Task> activeHoppers = new ConcurrentHashMap<>();
+    // Hopper location to the region that drains it
+    private final Map<Location, HopperRegion> activeHoppers = new ConcurrentHashMap<>();
+    private final Map<RegionKey, HopperRegion> regions = new ConcurrentHashMap<>();
     private final SpawnerManager spawnerManager;
     private final SpawnerGuiViewManager spawnerGuiViewManager;
     private final Map<String, ReentrantLock> spawnerLocks = new ConcurrentHashMap<>();
+    private final long checkDelay;
+    private final int stacksPerTransfer;
+    private final int transferBudget;
+    // Hoppers are grouped into cells of 2^shift chunks per side. Folia regions own whole sections of
+    // 2^grid-exponent chunks, so a cell stays inside one region only while the shift is at most that exponent
+    private final int regionChunkShift;
+
+    private record RegionKey(UUID worldId, int x, int z) {
+        static RegionKey of(Location location, int chunkShift) {
+            return new RegionKey(location.getWorld().getUID(),
+                    (location.getBlockX() >> 4) >> chunkShift,
+                    (location.getBlockZ() >> 4) >> chunkShift);
+        }
+    }
+
+    // One planned move of stored items into a hopper slot
+    private record SlotTransfer(int slot, int current, VirtualInventory.ItemSignature sig, int amount) {
+    }
+
+    /**
+     * All hopper links in one cell, drained by a single timer on the thread that owns the cell
+     */
+    private static final class HopperRegion {
+        // Hopper location to the spawner location above it
+        private final Map<Location, Location> links = new ConcurrentHashMap<>();
+        // The hopper whose location the timer is scheduled at
+        private Location anchor;
+        private Scheduler.Task task;
+        // Where the next pass starts, so hoppers skipped by the budget go first next time
+        private int cursor;
+    }
 
     public HopperHandler(SmartSpawner plugin) {
         this.plugin = plugin;
         this.spawnerManager = plugin.getSpawnerManager();
         this.spawnerGuiViewManager = plugin.getSpawnerGuiViewManager();
+        this.checkDelay = plugin.getTimeFromConfig("hopper.check_delay", "3s");
+        this.stacksPerTransfer = plugin.getConfig().getInt("hopper.stack_per_transfer", 5);
+        this.transferBudget = Math.max(1, plugin.getConfig().getInt("hopper.transfer_budget", 100));
+        this.regionChunkShift = Math.max(0, Math.min(8, plugin.getConfig().getInt("hopper.region_chunk_shift", 4)));
 
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
 
@@ -50,42 +87,46 @@ public class HopperHandler implements Listener {
     public void restartAllHoppers() {
         if (!plugin.getConfig().getBoolean("hopper.enabled", false)) return;
 
-        // For each world, we'll schedule a world-specific task
-        for (World world : plugin.getServer().getWorlds()) {
-            try {
-                // Create a location in this world to schedule a region task
-                // Using spawn location as it's guaranteed to exist
-                Location worldLocation = world.getSpawnLocation();
-
-                Scheduler.runLocationTask(worldLocation, () -> {
-                    try {
-                        // Now we're on the correct thread for this world region
-                        for (Chunk chunk : world.getLoadedChunks()) {
-                            processChunkHoppers(chunk);
-                        }
-                    } catch (Exception e) {
-                        plugin.getLogger().log(Level.SEVERE, "Error processing hoppers in world " + world.getName(), e);
-                    }
-                });
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Error scheduling hopper task for world " + world.getName(), e);
-            }
+        // Group the known spawners by cell, so each cell is checked once on the thread that owns it
+        Map<RegionKey, List<SpawnerData>> spawnersByRegion = new HashMap<>();
+        for (SpawnerData spawner : spawnerManager.getAllSpawners()) {
+            Location spawnerLoc = spawner.getSpawnerLocation();
+            if (spawnerLoc.getWorld() == null) continue;
+            spawnersByRegion.computeIfAbsent(RegionKey.of(spawnerLoc, regionChunkShift), k -> new ArrayList<>()).add(spawner);
+        }
+
+        for (List<SpawnerData> spawners : spawnersByRegion.values()) {
+            scheduleHopperLinking(spawners);
         }
     }
 
-    private void processChunkHoppers(Chunk chunk) {
+    private void scheduleHopperLinking(List<SpawnerData> spawners) {
         try {
-            for (BlockState state : chunk.getTileEntities(block -> block.getType() == Material.HOPPER, false)) {
-                Block hopperBlock = state.getBlock();
-                Block aboveBlock = hopperBlock.getRelative(BlockFace.UP);
+            Scheduler.runLocationTask(spawners.get(0).getSpawnerLocation(), () -> linkHoppers(spawners));
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error scheduling hopper task near " +
+                    spawners.get(0).getSpawnerLocation(), e);
+        }
+    }
 
-                if (aboveBlock.getType() == Material.SPAWNER) {
-                    startHopperTask(hopperBlock.getLocation(), aboveBlock.getLocation());
+    // Only the block below each known spawner is checked, never the chunk's tile entities
+    private void linkHoppers(List<SpawnerData> spawners) {
+        for (SpawnerData spawner : spawners) {
+            try {
+                Location spawnerLoc = spawner.getSpawnerLocation();
+                World world = spawnerLoc.getWorld();
+                if (world == null || !world.isChunkLoaded(spawnerLoc.getBlockX() >> 4, spawnerLoc.getBlockZ() >> 4)) {
+                    continue;
+                }
+
+                Block spawnerBlock = spawnerLoc.getBlock();
+                Block hopperBlock = spawnerBlock.getRelative(BlockFace.DOWN);
+                if (spawnerBlock.getType() == Material.SPAWNER && hopperBlock.getType() == Material.HOPPER) {
+                    startHopperTask(hopperBlock.getLocation(), spawnerBlock.getLocation());
                 }
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Error checking hopper below spawner " + spawner.getSpawnerId(), e);
             }
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Error processing hoppers in chunk at " +
-                    chunk.getX() + "," + chunk.getZ(), e);
         }
     }
 
@@ -93,30 +134,27 @@ public class HopperHandler implements Listener {
     public void onChunkLoad(ChunkLoadEvent event) {
         if (!plugin.getConfig().getBoolean("hopper.enabled", false)) return;
 
+        // Chunks without spawners cost a single index lookup
         Chunk chunk = event.getChunk();
-        // Use a location in this chunk to schedule a region task
-        try {
-            Location chunkLoc = new Location(chunk.getWorld(),
-                    chunk.getX() * 16 + 8, 64, chunk.getZ() * 16 + 8);
+        List<SpawnerData> spawners = spawnerManager.getSpawnersInChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+        if (spawners.isEmpty()) return;
 
-            Scheduler.runLocationTask(chunkLoc, () -> {
-                processChunkHoppers(chunk);
-            });
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Error scheduling hopper task for loaded chunk", e);
-        }
+        scheduleHopperLinking(spawners);
     }
 
     @EventHandler
     public void onChunkUnload(ChunkUnloadEvent event) {
         Chunk chunk = event.getChunk();
-        for (BlockState state : chunk.getTileEntities(block -> block.getType() == Material.HOPPER, false)) {
-            stopHopperTask(state.getLocation());
+        for (SpawnerData spawner : spawnerManager.getSpawnersInChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ())) {
+            Location spawnerLoc = spawner.getSpawnerLocation();
+            stopHopperTask(new Location(chunk.getWorld(),
+                    spawnerLoc.getBlockX(), spawnerLoc.getBlockY() - 1, spawnerLoc.getBlockZ()));
         }
     }
 
     public void cleanup() {
-        activeHoppers.values().forEach(Scheduler.Task::cancel);
+        regions.values().forEach(region -> region.task.cancel());
+        regions.clear();
         activeHoppers.clear();
         spawnerLocks.clear();
     }
@@ -147,32 +185,56 @@ public class HopperHandler implements Listener {
         if (!plugin.getConfig().getBoolean("hopper.enabled", false)) return;
         if (activeHoppers.containsKey(hopperLoc)) return;
 
-        // Create a runnable for the hopper task
-        Runnable hopperRunnable = () -> {
-            try {
-                if (!isValidSetup(hopperLoc, spawnerLoc)) {
-                    stopHopperTask(hopperLoc);
-                    return;
-                }
-                transferItems(hopperLoc, spawnerLoc);
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING, "Error in hopper task at " + hopperLoc, e);
-                // Don't stop the task on error, just log it
+        RegionKey key = RegionKey.of(hopperLoc, regionChunkShift);
+        regions.compute(key, (k, region) -> {
+            if (region == null) {
+                region = new HopperRegion();
+                if (!scheduleRegion(region, hopperLoc)) return null;
             }
-        };
+            region.links.put(hopperLoc, spawnerLoc);
+            activeHoppers.put(hopperLoc, region);
+            return region;
+        });
+    }
 
-        // Use the location-based scheduler for better Folia compatibility
+    // Starts the region timer at the given hopper, returns false if it could not be scheduled
+    private boolean scheduleRegion(HopperRegion region, Location anchor) {
+        // Use the location-based scheduler so the pass runs on the thread owning the cell
         try {
-            Scheduler.Task task = Scheduler.runLocationTaskTimer(
-                    hopperLoc,
-                    hopperRunnable,
-                    0L,
-                    plugin.getTimeFromConfig("hopper.check_delay", "3s")
-            );
-
-            activeHoppers.put(hopperLoc, task);
+            region.task = Scheduler.runLocationTaskTimer(anchor, () -> {
+                try {
+                    drainRegion(region);
+                } catch (Exception e) {
+                    plugin.getLogger().log(Level.WARNING, "Error in hopper task near " + anchor, e);
+                    // Don't stop the task on error, just log it
+                }
+            }, 0L, checkDelay);
+            region.anchor = anchor;
+            return true;
         } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to start hopper task at " + hopperLoc, e);
+            plugin.getLogger().log(Level.SEVERE, "Failed to start hopper task at " + anchor, e);
+            return false;
+        }
+    }
+
+    private void drainRegion(HopperRegion region) {
+        List<Map.Entry<Location, Location>> links = new ArrayList<>(region.links.entrySet());
+        if (links.isEmpty()) return;
+
+        // One budget for the whole cell, shared by all of its hoppers in this pass
+        int budget = transferBudget;
+        int start = region.cursor % links.size();
+        for (int n = 0; n < links.size() && budget > 0; n++) {
+            int index = (start + n) % links.size();
+            Location hopperLoc = links.get(index).getKey();
+            Location spawnerLoc = links.get(index).getValue();
+            region.cursor = index + 1;
+
+            if (!isValidSetup(hopperLoc, spawnerLoc)) {
+                stopHopperTask(hopperLoc);
+                continue;
+            }
+            budget -= transferItems(hopperLoc, spawnerLoc, Math.min(stacksPerTransfer, budget));
         }
     }
 
@@ -186,70 +248,39 @@ public class HopperHandler implements Listener {
     }
 
     public void stopHopperTask(Location hopperLoc) {
-        Scheduler.Task task = activeHoppers.remove(hopperLoc);
-        if (task != null) {
-            task.cancel();
-        }
+        HopperRegion region = activeHoppers.remove(hopperLoc);
+        if (region == null) return;
+
+        regions.computeIfPresent(RegionKey.of(hopperLoc, regionChunkShift), (key, current) -> {
+            current.links.remove(hopperLoc);
+            if (!hopperLoc.equals(current.anchor)) return current;
+
+            // The timer was anchored at this hopper, whose chunk may be unloading, so move it to a surviving one
+            current.task.cancel();
+            for (Location survivor : current.links.keySet()) {
+                if (scheduleRegion(current, survivor)) return current;
+            }
+            // Last hopper in the cell, or none could be scheduled, its links are dropped with it
+            current.links.keySet().forEach(activeHoppers::remove);
+            return null;
+        });
     }
 
-    private void transferItems(Location hopperLoc, Location spawnerLoc) {
+    // Moves up to maxStacks stacks into the hopper and returns how many were moved
+    private int transferItems(Location hopperLoc, Location spawnerLoc, int maxStacks) {
         SpawnerData spawner = spawnerManager.getSpawnerByLocation(spawnerLoc);
-        if (spawner == null) return;
+        if (spawner == null) return 0;
 
         ReentrantLock lock = getOrCreateLock(spawner);
-        if (!lock.tryLock()) return; // Skip this tick if we can't get the lock
+        if (!lock.tryLock()) return 0; // Skip this pass if we can't get the lock
 
+        int transferred = 0;
         try {
             VirtualInventory virtualInv = spawner.getVirtualInventory();
             Hopper hopper = (Hopper) hopperLoc.getBlock().getState(false); // Should be fine to disable snapshots
+            transferred = fillHopper(virtualInv, hopper.getInventory(), maxStacks);
 
-            int itemsPerTransfer = plugin.getConfig().getInt("hopper.stack_per_transfer", 5);
-            int transferred = 0;
-            boolean inventoryChanged = false;
-
-            Map<Integer, ItemStack> displayItems = virtualInv.getDisplayInventory();
-            List<ItemStack> itemsToRemove = new ArrayList<>();
-
-            for (Map.Entry<Integer, ItemStack> entry : displayItems.entrySet()) {
-                if (transferred >= itemsPerTransfer) break;
-
-                ItemStack item = entry.getValue();
-                if (item == null || item.getType() == Material.AIR) continue;
-
-                ItemStack[] hopperContents = hopper.getInventory().getContents();
-                for (int i = 0; i < hopperContents.length; i++) {
-                    if (transferred >= itemsPerTransfer) break;
-
-                    ItemStack hopperItem = hopperContents[i];
-                    if (hopperItem == null || hopperItem.getType() == Material.AIR) {
-                        hopper.getInventory().setItem(i, item.clone());
-                        itemsToRemove.add(item);
-                        transferred++;
-                        inventoryChanged = true;
-                        break;
-                    } else if (hopperItem.isSimilar(item) &&
-                            hopperItem.getAmount() < hopperItem.getMaxStackSize()) {
-                        int space = hopperItem.getMaxStackSize() - hopperItem.getAmount();
-                        int toTransfer = Math.min(space, item.getAmount());
-
-                        hopperItem.setAmount(hopperItem.getAmount() + toTransfer);
-
-                        ItemStack toRemove = item.clone();
-                        toRemove.setAmount(toTransfer);
-                        itemsToRemove.add(toRemove);
-
-                        transferred++;
-                        inventoryChanged = true;
-                        break;
-                    }
-                }
-            }
-
-            if (!itemsToRemove.isEmpty()) {
-                virtualInv.removeItems(itemsToRemove);
-            }
-
-            if (inventoryChanged) {
+            if (transferred > 0) {
                 updateOpenGuis(spawner);
             }
         } catch (Exception e) {
@@ -257,6 +288,63 @@ public class HopperHandler implements Listener {
         } finally {
             lock.unlock();
         }
+        return transferred;
+    }
+
+    /**
+     * Moves up to maxStacks stacks from the stored counts into free or matching hopper slots
+     *
+     * @param virtualInv The spawner storage to take from
+     * @param hopperInv The hopper inventory to fill
+     * @param maxStacks The maximum number of hopper slots to fill
+     * @return The number of slots filled
+     */
+    static int fillHopper(VirtualInventory virtualInv, Inventory hopperInv, int maxStacks) {
+        ItemStack[] contents = hopperInv.getContents();
+
+        // Plan which hopper slot each stored item goes into while walking the stored counts in place,
+        // stopping as soon as maxStacks slots are planned or every slot is taken
+        List<SlotTransfer> plan = new ArrayList<>(maxStacks);
+        boolean[] claimed = new boolean[contents.length];
+        virtualInv.forEachItem((sig, amount) -> {
+            ItemStack template = sig.getTemplateRef();
+            int maxStackSize = template.getMaxStackSize();
+            long remaining = amount;
+
+            for (int i = 0; i < contents.length && remaining > 0 && plan.size() < maxStacks; i++) {
+                if (claimed[i]) continue;
+                ItemStack hopperItem = contents[i];
+                int current = 0;
+                if (hopperItem != null && hopperItem.getType() != Material.AIR) {
+                    // Cheap type check before the full similarity check
+                    if (hopperItem.getType() != template.getType()
+                            || hopperItem.getAmount() >= maxStackSize
+                            || !hopperItem.isSimilar(template)) {
+                        continue;
+                    }
+                    current = hopperItem.getAmount();
+                }
+
+                int move = (int) Math.min(maxStackSize - current, remaining);
+                plan.add(new SlotTransfer(i, current, sig, move));
+                claimed[i] = true;
+                remaining -= move;
+            }
+            return plan.size() < maxStacks && plan.size() < contents.length;
+        });
+
+        // Apply the plan outside the inventory lock, other takers may have left less behind meanwhile
+        int transferred = 0;
+        for (SlotTransfer move : plan) {
+            long taken = virtualInv.takeItems(move.sig(), move.amount());
+            if (taken <= 0) continue;
+
+            ItemStack stack = move.current() == 0 ? move.sig().getTemplateRef().clone() : contents[move.slot()];
+            stack.setAmount(move.current() + (int) taken);
+            hopperInv.setItem(move.slot(), stack);
+            transferred++;
+        }
+        return transferred;
     }
 
     private void updateOpenGuis(SpawnerData spawner) {
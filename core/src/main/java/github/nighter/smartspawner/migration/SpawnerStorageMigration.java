@@ -0,0 +1,67 @@
+package github.nighter.smartspawner.migration;
+
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.storage.SpawnerRecord;
+import github.nighter.smartspawner.spawner.storage.SpawnerStorage;
+import github.nighter.smartspawner.spawner.storage.YamlSpawnerStorage;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+public class SpawnerStorageMigration {
+    private final SmartSpawner plugin;
+    private final File dataFolder;
+    private static final String DATA_FILE = "spawners_data.yml";
+    private static final String MIGRATED_FILE = "spawners_data_migrated.yml";
+    private final int CURRENT_VERSION;
+
+    public SpawnerStorageMigration(SmartSpawner plugin) {
+        this.plugin = plugin;
+        this.dataFolder = plugin.getDataFolder();
+        this.CURRENT_VERSION = plugin.getDATA_VERSION();
+    }
+
+    /**
+     * Moves spawners from spawners_data.yml into another storage backend.
+     * On success the YAML file is renamed so it is not imported again.
+     *
+     * @param target The storage to import into, its current contents are replaced
+     * @return true if spawners were migrated, false if there was nothing to migrate or it failed
+     */
+    public boolean migrateFromYaml(SpawnerStorage target) {
+        File dataFile = new File(dataFolder, DATA_FILE);
+        if (!dataFile.exists()) {
+            return false;
+        }
+
+        // The default file shipped with the plugin has no spawners section
+        FileConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
+        ConfigurationSection spawnersSection = config.getConfigurationSection("spawners");
+        if (spawnersSection == null || spawnersSection.getKeys(false).isEmpty()) {
+            return false;
+        }
+
+        plugin.getLogger().info("Migrating spawners from " + DATA_FILE + " to the new storage...");
+
+        try {
+            YamlSpawnerStorage source = new YamlSpawnerStorage(dataFile, CURRENT_VERSION, plugin.getLogger());
+            Map<String, SpawnerRecord> records = source.loadAll();
+            target.replaceAll(records.values());
+
+            File migratedFile = new File(dataFolder, MIGRATED_FILE);
+            Files.move(dataFile.toPath(), migratedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            plugin.getLogger().info("Migrated " + records.size() + " spawners. The old data was kept as " + MIGRATED_FILE);
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to migrate spawner data: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
\ No newline at end of file
@@ -157,25 +157,14 @@ public class SpawnerStorageUI {
 
     private void addPageItems(Map<Integer, ItemStack> updates, Set<Integer> slotsToEmpty,
                               SpawnerData spawner, int page) {
-        // Get display items directly from virtual inventory
+        // The page is rendered once per inventory version and shared with every other viewer of it
         VirtualInventory virtualInv = spawner.getVirtualInventory();
-        Map<Integer, ItemStack> displayItems = virtualInv.getDisplayInventory();
+        List<ItemStack> pageItems = virtualInv.getRenderedPage(page, StoragePageHolder.MAX_ITEMS_PER_PAGE);
 
-        if (displayItems.isEmpty()) {
-            return;
-        }
-
-        // Calculate start index for current page
-        int startIndex = (page - 1) * StoragePageHolder.MAX_ITEMS_PER_PAGE;
-
-        // Add items for this page
-        for (Map.Entry<Integer, ItemStack> entry : displayItems.entrySet()) {
-            int globalIndex = entry.getKey();
-
-            // Check if item belongs on this page
-            if (globalIndex >= startIndex && globalIndex < startIndex + StoragePageHolder.MAX_ITEMS_PER_PAGE) {
-                int displaySlot = globalIndex - startIndex;
-                updates.put(displaySlot, entry.getValue());
+        for (int displaySlot = 0; displaySlot < pageItems.size(); displaySlot++) {
+            ItemStack item = pageItems.get(displaySlot);
+            if (item != null) {
+                updates.put(displaySlot, item);
                 slotsToEmpty.remove(displaySlot);
             }
         }
@@ -25,6 +25,7 @@ import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -32,8 +33,9 @@ import java.util.concurrent.TimeUnit;
  * Handles the tracking, updating, and synchronization of open spawner GUI interfaces with improved performance.
  */
 public class SpawnerGuiViewManager implements Listener {
-    private static final long UPDATE_INTERVAL_TICKS = 10L;
-    private static final long INITIAL_DELAY_TICKS = 10L;
+    // Changes are flushed every tick, but only spawners marked dirty are touched
+    private static final long UPDATE_INTERVAL_TICKS = 1L;
+    private static final long INITIAL_DELAY_TICKS = 1L;
     private static final int ITEMS_PER_PAGE = 45;
 
     // GUI slot constants
@@ -42,10 +44,11 @@ public class SpawnerGuiViewManager implements Listener {
     private static final int EXP_SLOT = 15;
 
     // Update flags - using bit flags for efficient state tracking
-    private static final int UPDATE_CHEST = 1;
-    private static final int UPDATE_INFO = 2;
-    private static final int UPDATE_EXP = 4;
-    private static final int UPDATE_ALL = UPDATE_CHEST | UPDATE_INFO | UPDATE_EXP;
+    public static final int UPDATE_CHEST = 1;
+    public static final int UPDATE_INFO = 2;
+    public static final int UPDATE_EXP = 4;
+    public static final int UPDATE_TIMER = 8;
+    public static final int UPDATE_ALL = UPDATE_CHEST | UPDATE_INFO | UPDATE_EXP | UPDATE_TIMER;
 
     private final SmartSpawner plugin;
     private final LanguageManager languageManager;
@@ -57,10 +60,14 @@ public class SpawnerGuiViewManager implements Listener {
     private final Map<String, Set<UUID>> spawnerToPlayersMap;
     private final Set<Class<? extends InventoryHolder>> validHolderTypes;
 
-    // Batched update tracking to reduce inventory updates
-    private final Set<UUID> pendingUpdates = ConcurrentHashMap.newKeySet();
+    // Changes published since the last flush, per spawner and per single player
+    private final Map<SpawnerData, Integer> dirtySpawners = new ConcurrentHashMap<>();
     private final Map<UUID, Integer> updateFlags = new ConcurrentHashMap<>();
 
+    // Next second boundary of each visible countdown, stale queue entries are skipped when polled
+    private final Queue<TimerDeadline> timerQueue = new PriorityBlockingQueue<>();
+    private final Map<SpawnerData, Long> timerDeadlines = new ConcurrentHashMap<>();
+
     private Scheduler.Task updateTask;
     private volatile boolean isTaskRunning;
 
@@ -72,14 +79,23 @@ public class SpawnerGuiViewManager implements Listener {
     // Static class to hold viewer info more efficiently
     private static class SpawnerViewerInfo {
         final SpawnerData spawnerData;
+        final boolean menuView;
         final long lastUpdateTime;
 
-        SpawnerViewerInfo(SpawnerData spawnerData) {
+        SpawnerViewerInfo(SpawnerData spawnerData, boolean menuView) {
             this.spawnerData = spawnerData;
+            this.menuView = menuView;
             this.lastUpdateTime = System.currentTimeMillis();
         }
     }
 
+    private record TimerDeadline(long dueAt, SpawnerData spawner) implements Comparable<TimerDeadline> {
+        @Override
+        public int compareTo(TimerDeadline other) {
+            return Long.compare(dueAt, other.dueAt);
+        }
+    }
+
     public SpawnerGuiViewManager(SmartSpawner plugin) {
         this.plugin = plugin;
         this.languageManager = plugin.getLanguageManager();
@@ -112,7 +128,7 @@ public class SpawnerGuiViewManager implements Listener {
             return;
         }
 
-        updateTask = Scheduler.runTaskTimer(this::updateGuiForSpawnerInfo,
+        updateTask = Scheduler.runTaskTimer(this::flushUpdates,
                 INITIAL_DELAY_TICKS, UPDATE_INTERVAL_TICKS);
         isTaskRunning = true;
     }
@@ -127,6 +143,8 @@ public class SpawnerGuiViewManager implements Listener {
             updateTask = null;
         }
 
+        timerQueue.clear();
+        timerDeadlines.clear();
         isTaskRunning = false;
     }
 
@@ -142,14 +160,19 @@ public class SpawnerGuiViewManager implements Listener {
     //                      Viewer Tracking
     // ===============================================================
 
-    public void trackViewer(UUID playerId, SpawnerData spawner) {
-        playerToSpawnerMap.put(playerId, new SpawnerViewerInfo(spawner));
+    public void trackViewer(UUID playerId, SpawnerData spawner, boolean menuView) {
+        playerToSpawnerMap.put(playerId, new SpawnerViewerInfo(spawner, menuView));
         spawnerToPlayersMap.computeIfAbsent(spawner.getSpawnerId(), k -> ConcurrentHashMap.newKeySet())
                 .add(playerId);
 
         if (!isTaskRunning) {
             startUpdateTask();
         }
+
+        // Start the countdown of a newly opened menu
+        if (menuView) {
+            markDirty(spawner, UPDATE_TIMER);
+        }
     }
 
     public void untrackViewer(UUID playerId) {
@@ -166,7 +189,6 @@ public class SpawnerGuiViewManager implements Listener {
         }
 
         // Also remove from pending updates
-        pendingUpdates.remove(playerId);
         updateFlags.remove(playerId);
 
         // Check if we need to stop the update task
@@ -200,8 +222,10 @@ public class SpawnerGuiViewManager implements Listener {
     public void clearAllTrackedGuis() {
         playerToSpawnerMap.clear();
         spawnerToPlayersMap.clear();
-        pendingUpdates.clear();
+        dirtySpawners.clear();
         updateFlags.clear();
+        timerQueue.clear();
+        timerDeadlines.clear();
     }
 
     // ===============================================================
@@ -225,7 +249,7 @@ public class SpawnerGuiViewManager implements Listener {
         }
 
         if (spawnerData != null) {
-            trackViewer(playerId, spawnerData);
+            trackViewer(playerId, spawnerData, holder instanceof SpawnerMenuHolder);
         }
     }
 
@@ -246,90 +270,132 @@ public class SpawnerGuiViewManager implements Listener {
     //                      Update Logic
     // ===============================================================
 
-    private void updateGuiForSpawnerInfo() {
+    /**
+     * Marks parts of a spawner's GUIs as changed, its viewers are refreshed once on the next tick
+     *
+     * @param spawner The spawner that changed
+     * @param flags The UPDATE_ flags of the changed parts
+     */
+    public void markDirty(SpawnerData spawner, int flags) {
+        if (!hasViewers(spawner)) return;
+        dirtySpawners.merge(spawner, flags, (a, b) -> a | b);
+    }
+
+    private void flushUpdates() {
         if (playerToSpawnerMap.isEmpty()) {
             stopUpdateTask();
             return;
         }
 
-        // Process batched updates first
-        processPendingUpdates();
+        collectDueTimers(System.currentTimeMillis());
+        if (dirtySpawners.isEmpty() && updateFlags.isEmpty()) return;
+
+        // Coalesce every change of this tick into one set of flags per viewer
+        Map<UUID, Integer> viewerFlags = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (SpawnerData spawner : new ArrayList<>(dirtySpawners.keySet())) {
+            Integer flags = dirtySpawners.remove(spawner);
+            if (flags == null) continue;
+
+            boolean menuViewers = collectViewerFlags(spawner, flags, viewerFlags);
+            if (menuViewers && (flags & UPDATE_TIMER) != 0) {
+                scheduleTimer(spawner, now);
+            }
+        }
+
+        for (UUID playerId : new ArrayList<>(updateFlags.keySet())) {
+            Integer flags = updateFlags.remove(playerId);
+            if (flags != null) {
+                viewerFlags.merge(playerId, flags, (a, b) -> a | b);
+            }
+        }
 
-        // Then handle regular timer updates
-        for (Map.Entry<UUID, SpawnerViewerInfo> entry : playerToSpawnerMap.entrySet()) {
+        for (Map.Entry<UUID, Integer> entry : viewerFlags.entrySet()) {
             UUID playerId = entry.getKey();
-            SpawnerViewerInfo viewerInfo = entry.getValue();
-            SpawnerData spawner = viewerInfo.spawnerData;
             Player player = Bukkit.getPlayer(playerId);
-
             if (!isValidGuiSession(player)) {
                 untrackViewer(playerId);
                 continue;
             }
 
-            // Using location to make sure we're on the correct region thread
-            Location playerLocation = player.getLocation();
-            if (playerLocation != null) {
-                // This is the key fix: use location-based scheduling to ensure we're on the right thread
-                Scheduler.runLocationTask(playerLocation, () -> {
-                    if (!player.isOnline()) return;
+            SpawnerViewerInfo info = playerToSpawnerMap.get(playerId);
+            if (info == null) continue;
 
-                    Inventory openInventory = player.getOpenInventory().getTopInventory();
-                    if (openInventory == null) return;
+            // Using location to make sure we're on the correct region thread
+            Location loc = player.getLocation();
+            if (loc != null) {
+                final int flags = entry.getValue();
+                final SpawnerData spawner = info.spawnerData;
+                Scheduler.runLocationTask(loc, () -> applyUpdate(player, spawner, flags));
+            }
+        }
+    }
 
-                    InventoryHolder holder = openInventory.getHolder();
+    // Adds the flags each viewer of the spawner cares about, returns whether any viewer has the main menu open
+    private boolean collectViewerFlags(SpawnerData spawner, int flags, Map<UUID, Integer> viewerFlags) {
+        Set<UUID> viewers = spawnerToPlayersMap.get(spawner.getSpawnerId());
+        if (viewers == null) return false;
 
-                    if (holder instanceof SpawnerMenuHolder) {
-                        if (!spawner.getIsAtCapacity()) {
-                            updateSpawnerInfoItemTimer(openInventory, spawner);
-                        }
-                    } else if (!(holder instanceof StoragePageHolder)) {
-                        // If inventory is neither SpawnerMenuHolder nor StoragePageHolder, untrack
-                        untrackViewer(playerId);
-                    }
-                });
+        boolean menuViewers = false;
+        for (UUID viewerId : viewers) {
+            SpawnerViewerInfo info = playerToSpawnerMap.get(viewerId);
+            if (info == null || info.spawnerData != spawner) continue;
+
+            // Storage pages only show the stored items
+            int viewerFlagsForSpawner = info.menuView ? flags : flags & UPDATE_CHEST;
+            menuViewers |= info.menuView;
+            if (viewerFlagsForSpawner != 0) {
+                viewerFlags.merge(viewerId, viewerFlagsForSpawner, (a, b) -> a | b);
             }
         }
+        return menuViewers;
     }
 
-    private void processPendingUpdates() {
-        if (pendingUpdates.isEmpty()) return;
-
-        // Create a copy to avoid concurrent modification
-        Set<UUID> currentUpdates = new HashSet<>(pendingUpdates);
-        pendingUpdates.clear();
+    private void collectDueTimers(long now) {
+        TimerDeadline next;
+        while ((next = timerQueue.peek()) != null && next.dueAt() <= now) {
+            timerQueue.poll();
 
-        for (UUID playerId : currentUpdates) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (!isValidGuiSession(player)) {
-                untrackViewer(playerId);
-                updateFlags.remove(playerId);
-                continue;
-            }
+            // Skip deadlines replaced by a newer one for the same spawner
+            SpawnerData spawner = next.spawner();
+            if (!timerDeadlines.remove(spawner, next.dueAt())) continue;
+            markDirty(spawner, UPDATE_TIMER);
+        }
+    }
 
-            SpawnerViewerInfo info = playerToSpawnerMap.get(playerId);
-            if (info == null) {
-                updateFlags.remove(playerId);
-                continue;
-            }
+    private void scheduleTimer(SpawnerData spawner, long now) {
+        // Full, inactive and stopped spawners show a fixed text instead of a countdown
+        if (cachedTimerPrefix == null || cachedTimerPrefix.trim().isEmpty()
+                || spawner.getIsAtCapacity() || !spawner.getSpawnerActive() || spawner.getSpawnerStop()) {
+            timerDeadlines.remove(spawner);
+            return;
+        }
 
-            int flags = updateFlags.getOrDefault(playerId, UPDATE_ALL);
-            updateFlags.remove(playerId);
+        // The countdown shows whole seconds, so it next changes when the remaining time crosses a second
+        long remaining = spawner.getLastSpawnTime() + spawner.getSpawnDelay() * 50L - now;
+        long dueAt = remaining <= 0 ? now + 1000 : now + remaining % 1000 + 1;
+        timerDeadlines.put(spawner, dueAt);
+        timerQueue.add(new TimerDeadline(dueAt, spawner));
+    }
 
-            Location loc = player.getLocation();
-            if (loc != null) {
-                final int finalFlags = flags;
-                final SpawnerData spawner = info.spawnerData;
+    private void applyUpdate(Player player, SpawnerData spawner, int flags) {
+        if (!player.isOnline()) return;
 
-                Scheduler.runLocationTask(loc, () -> {
-                    if (!player.isOnline()) return;
+        Inventory openInv = player.getOpenInventory().getTopInventory();
+        if (openInv == null) return;
 
-                    Inventory openInv = player.getOpenInventory().getTopInventory();
-                    if (openInv == null || !(openInv.getHolder() instanceof SpawnerMenuHolder)) return;
+        InventoryHolder holder = openInv.getHolder();
+        if (holder instanceof SpawnerMenuHolder) {
+            processInventoryUpdate(player, openInv, spawner, flags);
+        } else if (holder instanceof StoragePageHolder storageHolder) {
+            if ((flags & UPDATE_CHEST) == 0) return;
 
-                    processInventoryUpdate(player, openInv, spawner, finalFlags);
-                });
-            }
+            int oldPages = calculateTotalPages(storageHolder.getOldUsedSlots());
+            int newPages = calculateTotalPages(spawner.getVirtualInventory().getUsedSlots());
+            processStorageUpdateDirect(player, openInv, spawner, storageHolder, oldPages, newPages);
+        } else {
+            // If inventory is neither SpawnerMenuHolder nor StoragePageHolder, untrack
+            untrackViewer(player.getUniqueId());
         }
     }
 
@@ -351,6 +417,11 @@ public class SpawnerGuiViewManager implements Listener {
             needsUpdate = true;
         }
 
+        // The countdown line is applied last, since rebuilding the info item keeps the old one
+        if ((flags & UPDATE_TIMER) != 0) {
+            updateSpawnerInfoItemTimer(inventory, spawner);
+        }
+
         if (needsUpdate) {
             player.updateInventory();
         }
@@ -361,80 +432,13 @@ public class SpawnerGuiViewManager implements Listener {
     // ===============================================================
 
     /**
-     * Optimized version of updateSpawnerMenuViewers - The main entry point for other classes
-     * to trigger updates to spawner menus.
+     * The main entry point for other classes to trigger updates to spawner menus.
+     * The update is applied to every viewer on the next tick.
      *
      * @param spawner The spawner data that has been updated
      */
     public void updateSpawnerMenuViewers(SpawnerData spawner) {
-        Set<UUID> viewers = spawnerToPlayersMap.get(spawner.getSpawnerId());
-        if (viewers == null || viewers.isEmpty()) return;
-
-        int viewerCount = viewers.size();
-        if (viewerCount > 10) {
-            plugin.debug(viewerCount + " spawner menu viewers to update for " + spawner.getSpawnerId() + " (batch update)");
-        }
-
-        // For storage viewers we need to calculate pages
-        int oldTotalPages = -1;
-        int newTotalPages = -1;
-
-        // Schedule updates for all viewers - but batch them efficiently
-        for (UUID viewerId : viewers) {
-            Player viewer = Bukkit.getPlayer(viewerId);
-            if (!isValidGuiSession(viewer)) {
-                untrackViewer(viewerId);
-                continue;
-            }
-
-            // Add to batch update with appropriate flags
-            pendingUpdates.add(viewerId);
-            updateFlags.put(viewerId, UPDATE_ALL);
-
-            // For efficiency, we'll check holder types once in a separate thread for large batches
-            if (viewerCount <= 5) {
-                // For small numbers of viewers, check inventory type now to determine storage page updates
-                Inventory openInv = viewer.getOpenInventory().getTopInventory();
-                if (openInv != null && openInv.getHolder() instanceof StoragePageHolder) {
-                    // Calculate pages only when needed
-                    if (oldTotalPages == -1) {
-                        StoragePageHolder holder = (StoragePageHolder) openInv.getHolder();
-                        oldTotalPages = calculateTotalPages(holder.getOldUsedSlots());
-                        newTotalPages = calculateTotalPages(spawner.getVirtualInventory().getUsedSlots());
-                    }
-
-                    // Schedule storage update on player's thread
-                    processStorageUpdate(viewer, spawner, oldTotalPages, newTotalPages);
-                }
-            }
-        }
-
-        // For larger batches, we'll handle storage viewers in a separate pass
-        if (viewerCount > 5) {
-            for (UUID viewerId : viewers) {
-                Player viewer = Bukkit.getPlayer(viewerId);
-                if (!isValidGuiSession(viewer)) continue;
-
-                // Run on player's thread to check inventory type
-                Location loc = viewer.getLocation();
-                if (loc != null) {
-                    Scheduler.runLocationTask(loc, () -> {
-                        if (!viewer.isOnline()) return;
-
-                        Inventory openInv = viewer.getOpenInventory().getTopInventory();
-                        if (openInv != null && openInv.getHolder() instanceof StoragePageHolder) {
-                            // Calculate pages only when needed (but within player's thread)
-                            StoragePageHolder holder = (StoragePageHolder) openInv.getHolder();
-                            int oldPages = calculateTotalPages(holder.getOldUsedSlots());
-                            int newPages = calculateTotalPages(spawner.getVirtualInventory().getUsedSlots());
-
-                            // Process the storage update directly since we're already in player's thread
-                            processStorageUpdateDirect(viewer, openInv, spawner, holder, oldPages, newPages);
-                        }
-                    });
-                }
-            }
-        }
+        markDirty(spawner, UPDATE_ALL);
     }
 
     public void processStorageUpdate(Player viewer, SpawnerData spawner, int oldTotalPages, int newTotalPages) {
@@ -501,8 +505,7 @@ public class SpawnerGuiViewManager implements Listener {
 
     public void updateSpawnerMenuGui(Player player, SpawnerData spawner, boolean forceUpdate) {
         // Add to batch update instead of immediate processing
-        pendingUpdates.add(player.getUniqueId());
-        updateFlags.put(player.getUniqueId(), UPDATE_ALL);
+        updateFlags.merge(player.getUniqueId(), UPDATE_ALL, (a, b) -> a | b);
     }
 
     private void updateSpawnerInfoItem(Inventory inventory, SpawnerData spawner, Player player) {
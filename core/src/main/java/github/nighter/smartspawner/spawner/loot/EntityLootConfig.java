@@ -1,21 +1,45 @@
 package github.nighter.smartspawner.spawner.loot;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.bukkit.Material;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Getter
 public class EntityLootConfig {
     private final int experience;
     private final List<LootItem> possibleItems;
+    // Immutable loot tables compiled once per distinct filter set and shared by every spawner using it
+    @Getter(AccessLevel.NONE) private final List<LootItem> unfilteredTable;
+    @Getter(AccessLevel.NONE) private final Map<Set<Material>, List<LootItem>> filteredTables = new ConcurrentHashMap<>();
 
     public EntityLootConfig(int experience, List<LootItem> items) {
         this.experience = experience;
         this.possibleItems = items;
+        this.unfilteredTable = List.copyOf(items);
     }
 
     public List<LootItem> getAllItems() {
         return possibleItems;
     }
+
+    /**
+     * Gets the compiled loot table for a filter set
+     *
+     * @param filteredItems Materials that should not drop
+     * @return Immutable list of loot items whose material is not filtered
+     */
+    public List<LootItem> getLootTable(Set<Material> filteredItems) {
+        if (filteredItems.isEmpty()) {
+            return unfilteredTable;
+        }
+        return filteredTables.computeIfAbsent(Set.copyOf(filteredItems), filter ->
+                unfilteredTable.stream()
+                        .filter(item -> !filter.contains(item.getMaterial()))
+                        .toList());
+    }
 }
\ No newline at end of file
@@ -20,6 +20,8 @@ public class EntityLootRegistry {
     private final Map<String, EntityLootConfig> entityLootConfigs;
     private final ItemPriceManager priceManager;
     private final Map<Material, Double> cachedPrices;
+    // Bumped on every reload so compiled loot tables know when to rebuild
+    private volatile int generation = 0;
 
     public EntityLootRegistry(JavaPlugin plugin, ItemPriceManager priceManager) {
         this.plugin = plugin;
@@ -119,5 +121,10 @@ public class EntityLootRegistry {
         entityLootConfigs.clear();
         cachedPrices.clear();
         loadConfigurations();
+        generation++;
+    }
+
+    public int getGeneration() {
+        return generation;
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package github.nighter.smartspawner.spawner.loot;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
@@ -24,6 +25,13 @@ public class LootItem {
     private final Integer potionAmplifier;
     private final double sellPrice; // Added sell price field
 
+    // Variant pools above this size are not precomputed, those items are built per drop
+    private static final int MAX_VARIANT_POOL = 512;
+    // Shared prototypes, one per durability variant (or a single one for fixed items).
+    // Callers must clone before changing them.
+    @Getter(AccessLevel.NONE) private final ItemStack[] prototypes;
+    @Getter(AccessLevel.NONE) private final PotionEffect potionEffect;
+
     public LootItem(Material material, int minAmount, int maxAmount, double chance,
                     Integer minDurability, Integer maxDurability, String potionEffectType,
                     Integer potionDuration, Integer potionAmplifier, double sellPrice) {
@@ -37,45 +45,89 @@ public class LootItem {
         this.potionDuration = potionDuration;
         this.potionAmplifier = potionAmplifier;
         this.sellPrice = sellPrice;
+        this.potionEffect = resolvePotionEffect();
+        this.prototypes = buildPrototypes();
     }
 
-    public ItemStack createItemStack(Random random) {
+    private PotionEffect resolvePotionEffect() {
+        if (material != Material.TIPPED_ARROW || potionEffectType == null
+                || potionDuration == null || potionAmplifier == null) {
+            return null;
+        }
+        PotionEffectType effectType = PotionEffectType.getByName(potionEffectType);
+        if (effectType == null) {
+            return null;
+        }
+        return new PotionEffect(effectType, potionDuration, potionAmplifier, true, true, true);
+    }
+
+    private ItemStack[] buildPrototypes() {
+        if (!hasDurabilityRange()) {
+            return new ItemStack[] { buildItemStack(null) };
+        }
+
+        int variants = maxDurability - minDurability + 1;
+        if (variants <= 0 || variants > MAX_VARIANT_POOL) {
+            return null;
+        }
+
+        ItemStack[] pool = new ItemStack[variants];
+        for (int i = 0; i < variants; i++) {
+            pool[i] = buildItemStack(minDurability + i);
+        }
+        return pool;
+    }
+
+    private boolean hasDurabilityRange() {
+        return minDurability != null && maxDurability != null;
+    }
+
+    private ItemStack buildItemStack(Integer durability) {
         ItemStack item = new ItemStack(material, 1);
 
         // Apply durability only if needed
-        if (minDurability != null && maxDurability != null) {
+        if (durability != null) {
             ItemMeta meta = item.getItemMeta();
             if (meta instanceof Damageable) {
-                int durability = random.nextInt(maxDurability - minDurability + 1) + minDurability;
                 ((Damageable) meta).setDamage(durability);
                 item.setItemMeta(meta);
             }
         }
 
         // Handle potion effects for tipped arrows
-        if (material == Material.TIPPED_ARROW && potionEffectType != null) {
-            PotionEffectType effectType = PotionEffectType.getByName(potionEffectType);
-            if (effectType != null && potionDuration != null && potionAmplifier != null) {
-                PotionMeta meta = (PotionMeta) item.getItemMeta();
-                if (meta != null) {
-                    // Create potion effect
-                    PotionEffect effect = new PotionEffect(
-                            effectType,
-                            potionDuration,
-                            potionAmplifier,
-                            true,
-                            true,
-                            true
-                    );
-                    meta.addCustomEffect(effect, true);
-                    item.setItemMeta(meta);
-                }
+        if (potionEffect != null) {
+            PotionMeta meta = (PotionMeta) item.getItemMeta();
+            if (meta != null) {
+                meta.addCustomEffect(potionEffect, true);
+                item.setItemMeta(meta);
             }
         }
 
         return item;
     }
 
+    /**
+     * Gets a shared prototype for one drop of this item, picking a random durability
+     * variant when the item has a durability range. The returned stack must not be modified.
+     *
+     * @param random The random source
+     * @return A shared ItemStack with amount 1
+     */
+    public ItemStack getPrototype(Random random) {
+        if (prototypes == null) {
+            // Range too wide to pool, build this variant on demand
+            return buildItemStack(random.nextInt(maxDurability - minDurability + 1) + minDurability);
+        }
+        if (prototypes.length == 1) {
+            return prototypes[0];
+        }
+        return prototypes[random.nextInt(prototypes.length)];
+    }
+
+    public ItemStack createItemStack(Random random) {
+        return getPrototype(random).clone();
+    }
+
     public int generateAmount(Random random) {
         return random.nextInt(maxAmount - minAmount + 1) + minAmount;
     }
@@ -1,33 +1,54 @@
 package github.nighter.smartspawner.spawner.lootgen;
 
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
 
 public class LootResult {
-    private final List<ItemStack> items;
+    private List<ItemStack> items; // Built on first access for count-based results
+    private final Map<VirtualInventory.ItemSignature, Long> itemCounts; // Null for list-based results
     private final int experience;
     private final Map<String, Object> metadata; // For additional data if needed
 
     public LootResult(List<ItemStack> items, int experience) {
         this.items = new ArrayList<>(items); // Create defensive copy
+        this.itemCounts = null;
         this.experience = experience;
         this.metadata = new HashMap<>();
     }
 
     public LootResult(List<ItemStack> items, int experience, Map<String, Object> metadata) {
         this.items = new ArrayList<>(items);
+        this.itemCounts = null;
         this.experience = experience;
         this.metadata = new HashMap<>(metadata);
     }
 
+    private LootResult(Map<VirtualInventory.ItemSignature, Long> itemCounts, int experience) {
+        this.items = null;
+        this.itemCounts = itemCounts;
+        this.experience = experience;
+        this.metadata = new HashMap<>();
+    }
+
+    /**
+     * Creates a LootResult that carries consolidated item counts instead of split stacks
+     * @param itemCounts Total amount per item signature, owned by the result from now on
+     * @param experience Amount of experience
+     * @return A count-based LootResult
+     */
+    public static LootResult ofCounts(Map<VirtualInventory.ItemSignature, Long> itemCounts, int experience) {
+        return new LootResult(itemCounts, experience);
+    }
+
     /**
      * Gets a copy of the items list to prevent external modification
      * @return List of ItemStacks representing the loot
      */
     public List<ItemStack> getItems() {
-        return new ArrayList<>(items);
+        return new ArrayList<>(getRawItems());
     }
 
     /**
@@ -35,9 +56,45 @@ public class LootResult {
      * @return Direct reference to the items list
      */
     List<ItemStack> getRawItems() {
+        if (items == null) {
+            items = expandCounts(itemCounts);
+        }
         return items;
     }
 
+    /**
+     * Gets the loot as total amounts per item signature, without splitting into stacks
+     * @return Unmodifiable map of item signature to amount
+     */
+    public Map<VirtualInventory.ItemSignature, Long> getItemCounts() {
+        if (itemCounts != null) {
+            return Collections.unmodifiableMap(itemCounts);
+        }
+
+        Map<VirtualInventory.ItemSignature, Long> counts = new HashMap<>();
+        for (ItemStack item : items) {
+            if (item == null || item.getAmount() <= 0) continue;
+            counts.merge(VirtualInventory.getSignature(item), (long) item.getAmount(), Long::sum);
+        }
+        return counts;
+    }
+
+    private static List<ItemStack> expandCounts(Map<VirtualInventory.ItemSignature, Long> counts) {
+        List<ItemStack> stacks = new ArrayList<>();
+        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : counts.entrySet()) {
+            ItemStack template = entry.getKey().getTemplateRef();
+            int maxStackSize = template.getMaxStackSize();
+            long remaining = entry.getValue();
+            while (remaining > 0) {
+                ItemStack stack = template.clone();
+                stack.setAmount((int) Math.min(remaining, maxStackSize));
+                stacks.add(stack);
+                remaining -= stack.getAmount();
+            }
+        }
+        return stacks;
+    }
+
     /**
      * Gets the total experience from this loot
      * @return Amount of experience
@@ -69,7 +126,7 @@ public class LootResult {
      * @return true if there are any items, false otherwise
      */
     public boolean hasItems() {
-        return !items.isEmpty();
+        return itemCounts != null ? !itemCounts.isEmpty() : !items.isEmpty();
     }
 
     /**
@@ -85,6 +142,11 @@ public class LootResult {
      * @return Total number of items
      */
     public int getTotalItems() {
+        if (itemCounts != null) {
+            return (int) itemCounts.values().stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+        }
         return items.stream()
                 .mapToInt(ItemStack::getAmount)
                 .sum();
@@ -96,7 +158,7 @@ public class LootResult {
      * @return A new LootResult containing items and experience from both
      */
     public LootResult combine(LootResult other) {
-        List<ItemStack> combinedItems = new ArrayList<>(this.items);
+        List<ItemStack> combinedItems = new ArrayList<>(getRawItems());
         combinedItems.addAll(other.getItems());
 
         Map<String, Object> combinedMetadata = new HashMap<>(this.metadata);
@@ -139,7 +201,7 @@ public class LootResult {
     @Override
     public String toString() {
         return String.format("LootResult{items=%d, experience=%d, metadata=%s}",
-                items.size(), experience, metadata);
+                getRawItems().size(), experience, metadata);
     }
 
     /**
@@ -150,7 +212,7 @@ public class LootResult {
         section.set("experience", experience);
 
         List<Map<String, Object>> serializedItems = new ArrayList<>();
-        for (ItemStack item : items) {
+        for (ItemStack item : getRawItems()) {
             serializedItems.add(item.serialize());
         }
         section.set("items", serializedItems);
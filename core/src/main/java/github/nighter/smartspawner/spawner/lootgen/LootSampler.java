@@ -0,0 +1,121 @@
+package github.nighter.smartspawner.spawner.lootgen;
+
+import java.util.Random;
+
+/**
+ * Sampling helpers that let loot generation draw whole-batch results in constant time
+ * instead of rolling once per mob and once per drop.
+ *
+ * Small batches are still rolled directly so regular, unstacked spawners keep the exact
+ * distribution of the per-mob loop. Larger batches switch to inversion for rare drops
+ * and to a skew-corrected normal approximation once the variance is large enough for it to be accurate.
+ */
+public final class LootSampler {
+    // Up to this many trials, rolling each one is both exact and cheap
+    private static final int DIRECT_THRESHOLD = 16;
+    // Below this expected count, CDF inversion finishes in a handful of steps
+    private static final double INVERSION_MEAN_LIMIT = 10.0;
+
+    private LootSampler() {
+    }
+
+    /**
+     * Draws how many of {@code trials} independent rolls succeed with probability {@code probability}
+     *
+     * @param trials The number of rolls, e.g. the number of mobs
+     * @param probability The success chance of a single roll, between 0 and 1
+     * @param random The random source
+     * @return The number of successful rolls, between 0 and trials
+     */
+    public static int sampleBinomial(int trials, double probability, Random random) {
+        if (trials <= 0 || probability <= 0) return 0;
+        if (probability >= 1) return trials;
+
+        if (trials <= DIRECT_THRESHOLD) {
+            int successes = 0;
+            for (int i = 0; i < trials; i++) {
+                if (random.nextDouble() < probability) {
+                    successes++;
+                }
+            }
+            return successes;
+        }
+
+        // Sample the rarer outcome and mirror, keeping both paths in their accurate range
+        if (probability > 0.5) {
+            return trials - sampleBinomial(trials, 1.0 - probability, random);
+        }
+
+        double mean = trials * probability;
+        if (mean < INVERSION_MEAN_LIMIT) {
+            return binomialInversion(trials, probability, random);
+        }
+
+        double variance = mean * (1.0 - probability);
+        long sample = Math.round(mean + Math.sqrt(variance) * skewedGaussian(probability, variance, random));
+        return (int) Math.max(0, Math.min(trials, sample));
+    }
+
+    /**
+     * Cornish-Fisher expansion of a standard normal draw using the binomial skewness and kurtosis.
+     * A plain normal is visibly off near the inversion limit, where the binomial is still skewed.
+     */
+    private static double skewedGaussian(double probability, double variance, Random random) {
+        double skewness = (1.0 - 2.0 * probability) / Math.sqrt(variance);
+        double kurtosis = (1.0 - 6.0 * probability * (1.0 - probability)) / variance;
+        double z = random.nextGaussian();
+        double z2 = z * z;
+        double z3 = z2 * z;
+        return z + skewness * (z2 - 1.0) / 6.0
+                + kurtosis * (z3 - 3.0 * z) / 24.0
+                - skewness * skewness * (2.0 * z3 - 5.0 * z) / 36.0;
+    }
+
+    /**
+     * Walks the binomial CDF from zero using the pmf recurrence, for p <= 0.5 and a small mean
+     */
+    private static int binomialInversion(int trials, double probability, Random random) {
+        double q = 1.0 - probability;
+        double s = probability / q;
+        double a = (trials + 1) * s;
+        double r = Math.pow(q, trials);
+        double u = random.nextDouble();
+
+        int successes = 0;
+        while (u > r && successes < trials) {
+            u -= r;
+            successes++;
+            r *= (a / successes - s);
+        }
+        return successes;
+    }
+
+    /**
+     * Draws the sum of {@code count} independent uniform amounts in [min, max]
+     *
+     * @param count The number of amounts to add up, e.g. the number of successful drops
+     * @param min The minimum single amount, inclusive
+     * @param max The maximum single amount, inclusive
+     * @param random The random source
+     * @return The summed amount, between count * min and count * max
+     */
+    public static long sampleUniformSum(int count, int min, int max, Random random) {
+        if (count <= 0) return 0;
+        if (min == max) return (long) count * min;
+
+        int span = max - min + 1;
+        if (count <= DIRECT_THRESHOLD) {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += random.nextInt(span) + min;
+            }
+            return total;
+        }
+
+        // By the central limit theorem the sum is close to normal for this many terms
+        double mean = count * (min + max) / 2.0;
+        double variance = count * ((double) span * span - 1.0) / 12.0;
+        long sample = Math.round(mean + Math.sqrt(variance) * random.nextGaussian());
+        return Math.max((long) count * min, Math.min((long) count * max, sample));
+    }
+}
\ No newline at end of file
@@ -46,60 +46,40 @@ public class SpawnerLootGenerator {
         List<LootItem> validItems =  spawner.getValidLootItems();
 
         if (validItems.isEmpty()) {
-            return new LootResult(Collections.emptyList(), totalExperience);
+            return LootResult.ofCounts(Collections.emptyMap(), totalExperience);
         }
 
-        // Use a Map to consolidate identical drops instead of List
-        Map<ItemStack, Integer> consolidatedLoot = new HashMap<>();
+        // Prototypes are shared per loot item variant, so identity is enough to consolidate drops
+        Map<ItemStack, Long> consolidatedLoot = new IdentityHashMap<>();
 
         // Process mobs in batch rather than individually
         for (LootItem lootItem : validItems) {
-            // Calculate the probability for the entire mob batch at once
-            int successfulDrops = 0;
-
-            // Calculate binomial distribution - how many mobs will drop this item
-            for (int i = 0; i < mobCount; i++) {
-                if (random.nextDouble() * 100 <= lootItem.getChance()) {
-                    successfulDrops++;
-                }
-            }
+            // Draw how many mobs drop this item from the binomial distribution in one step
+            int successfulDrops = LootSampler.sampleBinomial(mobCount, lootItem.getChance() / 100.0, random);
 
             if (successfulDrops > 0) {
-                // Create item just once per loot type
-                ItemStack prototype = lootItem.createItemStack(random);
+                // Shared prototype, only cloned when the final stacks are built
+                ItemStack prototype = lootItem.getPrototype(random);
                 if (prototype != null) {
-                    // Total amount across all mobs
-                    int totalAmount = 0;
-                    for (int i = 0; i < successfulDrops; i++) {
-                        totalAmount += lootItem.generateAmount(random);
-                    }
+                    // Total amount across all mobs, drawn as a single sum
+                    long totalAmount = LootSampler.sampleUniformSum(successfulDrops,
+                            lootItem.getMinAmount(), lootItem.getMaxAmount(), random);
 
                     if (totalAmount > 0) {
                         // Add to consolidated map
-                        consolidatedLoot.merge(prototype, totalAmount, Integer::sum);
+                        consolidatedLoot.merge(prototype, totalAmount, Long::sum);
                     }
                 }
             }
         }
 
-        // Convert consolidated map to item stacks
-        List<ItemStack> finalLoot = new ArrayList<>(consolidatedLoot.size());
-        for (Map.Entry<ItemStack, Integer> entry : consolidatedLoot.entrySet()) {
-            ItemStack item = entry.getKey().clone();
-            item.setAmount(Math.min(entry.getValue(), item.getMaxStackSize()));
-            finalLoot.add(item);
-
-            // Handle amounts exceeding max stack size
-            int remaining = entry.getValue() - item.getMaxStackSize();
-            while (remaining > 0) {
-                ItemStack extraStack = item.clone();
-                extraStack.setAmount(Math.min(remaining, item.getMaxStackSize()));
-                finalLoot.add(extraStack);
-                remaining -= extraStack.getAmount();
-            }
+        // Key the totals by signature so they go straight into the virtual inventory
+        Map<VirtualInventory.ItemSignature, Long> itemCounts = new HashMap<>(consolidatedLoot.size());
+        for (Map.Entry<ItemStack, Long> entry : consolidatedLoot.entrySet()) {
+            itemCounts.merge(VirtualInventory.getSignature(entry.getKey()), entry.getValue(), Long::sum);
         }
 
-        return new LootResult(finalLoot, totalExperience);
+        return LootResult.ofCounts(itemCounts, totalExperience);
     }
 
     public void spawnLootToSpawner(SpawnerData spawner) {
@@ -148,7 +128,7 @@ public class SpawnerLootGenerator {
                 LootResult loot = generateLoot(minMobs, maxMobs, spawner);
 
                 // Only proceed if we generated something
-                if (loot.getItems().isEmpty() && loot.getExperience() == 0) {
+                if (!loot.hasItems() && loot.getExperience() == 0) {
                     return;
                 }
 
@@ -184,19 +164,13 @@ public class SpawnerLootGenerator {
                         usedSlots.set(spawner.getVirtualInventory().getUsedSlots());
 
                         // Process items if there are any to add and inventory isn't completely full
-                        if (!loot.getItems().isEmpty() && usedSlots.get() < maxSlots.get()) {
-                            List<ItemStack> itemsToAdd = new ArrayList<>(loot.getItems());
-
-                            // Get exact calculation of slots with the new items
-                            int totalRequiredSlots = calculateRequiredSlots(itemsToAdd, spawner.getVirtualInventory());
+                        if (loot.hasItems() && usedSlots.get() < maxSlots.get()) {
+                            // Fit the amounts into the free slots without splitting them into stacks
+                            Map<VirtualInventory.ItemSignature, Long> countsToAdd =
+                                    limitCountsToAvailableSlots(loot.getItemCounts(), spawner);
 
-                            // If we'll exceed the limit, limit the items we're adding
-                            if (totalRequiredSlots > maxSlots.get()) {
-                                itemsToAdd = limitItemsToAvailableSlots(itemsToAdd, spawner);
-                            }
-
-                            if (!itemsToAdd.isEmpty()) {
-                                spawner.getVirtualInventory().addItems(itemsToAdd);
+                            if (!countsToAdd.isEmpty()) {
+                                spawner.getVirtualInventory().addItemCounts(countsToAdd);
                                 changed = true;
                             }
                         }
@@ -223,97 +197,55 @@ public class SpawnerLootGenerator {
         }
     }
 
-    private List<ItemStack> limitItemsToAvailableSlots(List<ItemStack> items, SpawnerData spawner) {
-        VirtualInventory currentInventory = spawner.getVirtualInventory();
+    private Map<VirtualInventory.ItemSignature, Long> limitCountsToAvailableSlots(
+            Map<VirtualInventory.ItemSignature, Long> itemCounts, SpawnerData spawner) {
         int maxSlots = spawner.getMaxSpawnerLootSlots();
+        VirtualInventory virtualInv = spawner.getVirtualInventory();
+        int usedSlots = virtualInv.getUsedSlots();
 
-        // If already full, return empty list
-        if (currentInventory.getUsedSlots() >= maxSlots) {
-            return Collections.emptyList();
+        // If already full, nothing fits
+        if (usedSlots >= maxSlots) {
+            return Collections.emptyMap();
         }
 
-        // Create a simulation inventory
-        Map<VirtualInventory.ItemSignature, Long> simulatedInventory = new HashMap<>(currentInventory.getConsolidatedItems());
-        List<ItemStack> acceptedItems = new ArrayList<>();
-
         // Sort items by priority (you can change this sorting strategy)
-        items.sort(Comparator.comparing(item -> item.getType().name()));
-
-        for (ItemStack item : items) {
-            if (item == null || item.getAmount() <= 0) continue;
-
-            // Add to simulation and check slot count
-            Map<VirtualInventory.ItemSignature, Long> tempSimulation = new HashMap<>(simulatedInventory);
-            VirtualInventory.ItemSignature sig = new VirtualInventory.ItemSignature(item);
-            tempSimulation.merge(sig, (long) item.getAmount(), Long::sum);
-
-            // Calculate slots needed
-            int slotsNeeded = calculateSlots(tempSimulation);
-
-            // If we still have room, accept this item
-            if (slotsNeeded <= maxSlots) {
-                acceptedItems.add(item);
-                simulatedInventory = tempSimulation; // Update simulation
-            } else {
-                // Try to accept a partial amount of this item
-                int maxStackSize = item.getMaxStackSize();
-                long currentAmount = simulatedInventory.getOrDefault(sig, 0L);
-
-                // Calculate how many we can add without exceeding slot limit
-                int remainingSlots = maxSlots - calculateSlots(simulatedInventory);
-                if (remainingSlots > 0) {
-                    // Maximum items we can add in the remaining slots
-                    long maxAddAmount = remainingSlots * maxStackSize - (currentAmount % maxStackSize);
-                    if (maxAddAmount > 0) {
-                        // Create a partial item
-                        ItemStack partialItem = item.clone();
-                        partialItem.setAmount((int) Math.min(maxAddAmount, item.getAmount()));
-                        acceptedItems.add(partialItem);
-
-                        // Update simulation
-                        simulatedInventory.merge(sig, (long) partialItem.getAmount(), Long::sum);
-                    }
-                }
-
-                // We've filled all slots, stop processing
-                break;
+        List<Map.Entry<VirtualInventory.ItemSignature, Long>> entries = new ArrayList<>(itemCounts.entrySet());
+        entries.sort(Comparator.comparing(e -> e.getKey().getMaterialName()));
+
+        Map<VirtualInventory.ItemSignature, Long> accepted = new HashMap<>(entries.size());
+        for (Map.Entry<VirtualInventory.ItemSignature, Long> entry : entries) {
+            long amount = entry.getValue();
+            if (amount <= 0) continue;
+
+            VirtualInventory.ItemSignature sig = entry.getKey();
+            int maxStackSize = sig.getTemplateRef().getMaxStackSize();
+            long currentAmount = virtualInv.getAmount(sig);
+            int currentSlots = slotsFor(currentAmount, maxStackSize);
+            int newSlots = slotsFor(currentAmount + amount, maxStackSize);
+
+            // If we still have room, accept the whole amount
+            if (usedSlots - currentSlots + newSlots <= maxSlots) {
+                accepted.put(sig, amount);
+                usedSlots += newSlots - currentSlots;
+                continue;
             }
-        }
-
-        return acceptedItems;
-    }
-
-    private int calculateSlots(Map<VirtualInventory.ItemSignature, Long> items) {
-        // Use a more efficient calculation approach
-        return items.entrySet().stream()
-                .mapToInt(entry -> {
-                    long amount = entry.getValue();
-                    int maxStackSize = entry.getKey().getTemplateRef().getMaxStackSize();
-                    // Use integer division with ceiling function
-                    return (int) ((amount + maxStackSize - 1) / maxStackSize);
-                })
-                .sum();
-    }
 
-    private int calculateRequiredSlots(List<ItemStack> items, VirtualInventory inventory) {
-        // Create a temporary map to simulate how items would stack
-        Map<VirtualInventory.ItemSignature, Long> simulatedItems = new HashMap<>();
+            // Otherwise accept what fits in this item's partial stack and the remaining slots
+            long capacity = (long) (maxSlots - usedSlots + currentSlots) * maxStackSize - currentAmount;
+            if (capacity > 0) {
+                accepted.put(sig, Math.min(capacity, amount));
+            }
 
-        // First, get existing items if we need to account for them
-        if (inventory != null) {
-            simulatedItems.putAll(inventory.getConsolidatedItems());
+            // We've filled all slots, stop processing
+            break;
         }
 
-        // Add the new items to our simulation
-        for (ItemStack item : items) {
-            if (item == null || item.getAmount() <= 0) continue;
-
-            VirtualInventory.ItemSignature sig = new VirtualInventory.ItemSignature(item);
-            simulatedItems.merge(sig, (long) item.getAmount(), Long::sum);
-        }
+        return accepted;
+    }
 
-        // Calculate exact slots needed
-        return calculateSlots(simulatedItems);
+    private static int slotsFor(long amount, int maxStackSize) {
+        // Use integer division with ceiling function
+        return (int) ((amount + maxStackSize - 1) / maxStackSize);
     }
 
     private void handleGuiUpdates(SpawnerData spawner) {
@@ -0,0 +1,113 @@
+package github.nighter.smartspawner.spawner.lootgen;
+
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/**
+ * Drives the loot timers of all active spawners from one repeating task.
+ *
+ * Active spawners sit in a priority queue ordered by the tick they are next due, so every tick
+ * only wakes the spawners that are actually due instead of keeping one scheduler entry per spawner.
+ * The queue is only touched by the driver task; other threads hand over new entries through a
+ * lock-free inbox and cancel by flagging the entry.
+ */
+public class SpawnerLootScheduler {
+    private final SmartSpawner plugin;
+    private final SpawnerLootGenerator spawnerLootGenerator;
+    private final Map<String, Entry> scheduled = new ConcurrentHashMap<>();
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final PriorityQueue<Entry> dueQueue = new PriorityQueue<>(Comparator.comparingLong(e -> e.dueTick));
+    private final Scheduler.Task driverTask;
+    private long currentTick = 0;
+
+    public SpawnerLootScheduler(SmartSpawner plugin, SpawnerLootGenerator spawnerLootGenerator) {
+        this.plugin = plugin;
+        this.spawnerLootGenerator = spawnerLootGenerator;
+        this.driverTask = Scheduler.runTaskTimer(this::tick, 1L, 1L);
+    }
+
+    private static final class Entry {
+        final SpawnerData spawner;
+        final long initialDelay;
+        long dueTick;
+        volatile boolean cancelled;
+
+        Entry(SpawnerData spawner, long initialDelay) {
+            this.spawner = spawner;
+            this.initialDelay = initialDelay;
+        }
+    }
+
+    /**
+     * Schedules a spawner to generate loot every spawn delay, replacing any existing timer
+     *
+     * @param spawner The spawner to schedule
+     * @param initialDelay Ticks until the first generation
+     */
+    public void schedule(SpawnerData spawner, long initialDelay) {
+        Entry entry = new Entry(spawner, Math.max(1L, initialDelay));
+        Entry previous = scheduled.put(spawner.getSpawnerId(), entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pending.add(entry);
+    }
+
+    /**
+     * Cancels the timer of a spawner if it has one
+     *
+     * @param spawnerId The spawner ID
+     */
+    public void cancel(String spawnerId) {
+        Entry entry = scheduled.remove(spawnerId);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    private void tick() {
+        currentTick++;
+
+        // Move newly scheduled spawners into the due queue
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.cancelled) continue;
+            entry.dueTick = currentTick + entry.initialDelay;
+            dueQueue.add(entry);
+        }
+
+        // Wake only the spawners that are due this tick
+        while (!dueQueue.isEmpty() && dueQueue.peek().dueTick <= currentTick) {
+            entry = dueQueue.poll();
+            if (entry.cancelled) continue;
+
+            SpawnerData spawner = entry.spawner;
+            try {
+                if (!spawner.getSpawnerStop()) {
+                    spawnerLootGenerator.spawnLootToSpawner(spawner);
+                }
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Error generating loot for spawner " + spawner.getSpawnerId(), e);
+            }
+
+            if (entry.cancelled) continue;
+            // Re-read the delay so stack changes apply from the next cycle
+            entry.dueTick = currentTick + Math.max(1L, spawner.getSpawnDelay());
+            dueQueue.add(entry);
+        }
+    }
+
+    public void shutdown() {
+        driverTask.cancel();
+        scheduled.values().forEach(e -> e.cancelled = true);
+        scheduled.clear();
+        pending.clear();
+        dueQueue.clear();
+    }
+}
\ No newline at end of file
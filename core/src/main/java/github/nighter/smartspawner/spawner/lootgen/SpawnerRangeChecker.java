@@ -1,92 +1,319 @@
 package github.nighter.smartspawner.spawner.lootgen;
 
 import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.properties.SpawnerLocationIndex;
 import github.nighter.smartspawner.spawner.properties.SpawnerManager;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.Scheduler;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class SpawnerRangeChecker {
-    private static final long CHECK_INTERVAL = 20L; // 1 second in ticks
+/**
+ * Activates and deactivates spawners based on player proximity.
+ *
+ * Instead of polling every spawner, player movement across block boundaries drives the checks:
+ * only spawners around the player's old and new position are re-evaluated, and a spawner only
+ * changes state when its set of nearby players becomes empty or non-empty. A slow reconcile pass
+ * re-reads every online player's position so membership heals if a movement was ever missed.
+ */
+public class SpawnerRangeChecker implements Listener {
+    private static final long RECONCILE_INTERVAL_TICKS = 20L * 30;
+
     private final SmartSpawner plugin;
     private final SpawnerManager spawnerManager;
-    private final SpawnerLootGenerator spawnerLootGenerator;
-    private final Map<String, Scheduler.Task> spawnerTasks;
+    private final SpawnerLootScheduler lootScheduler;
     private final Map<String, Set<UUID>> playersInRange;
+    // Last known position of every tracked player
+    private final Map<UUID, PlayerPosition> playerPositions;
+    // Players currently standing in each chunk, keyed by world name and packed chunk key
+    private final Map<String, Map<Long, Set<UUID>>> chunkPlayers;
+    // Largest range of any known spawner, used as the search radius around players
+    private volatile int maxRange;
     private boolean checkGhostSpawnersOnApproach;
+    private Scheduler.Task reconcileTask;
 
     public SpawnerRangeChecker(SmartSpawner plugin) {
         this.plugin = plugin;
         this.spawnerManager = plugin.getSpawnerManager();
-        this.spawnerLootGenerator = plugin.getSpawnerLootGenerator();
-        this.spawnerTasks = new ConcurrentHashMap<>();
+        this.lootScheduler = new SpawnerLootScheduler(plugin, plugin.getSpawnerLootGenerator());
         this.playersInRange = new ConcurrentHashMap<>();
+        this.playerPositions = new ConcurrentHashMap<>();
+        this.chunkPlayers = new ConcurrentHashMap<>();
         this.checkGhostSpawnersOnApproach = plugin.getConfig().getBoolean("ghost_spawners.remove_on_approach", false);
-        initializeRangeCheckTask();
+        initializeTracking();
     }
 
     public void reload() {
         this.checkGhostSpawnersOnApproach = plugin.getConfig().getBoolean("ghost_spawners.remove_on_approach", false);
+        recalculateMaxRange();
+        trackOnlinePlayers();
     }
 
-    private void initializeRangeCheckTask() {
-        // Using the global scheduler, but only for coordinating region-specific checks
-        Scheduler.runTaskTimer(() ->
-                        spawnerManager.getAllSpawners().forEach(this::scheduleRegionSpecificCheck),
-                CHECK_INTERVAL, CHECK_INTERVAL);
+    private void initializeTracking() {
+        // Spawners loaded from disk may still be flagged as running from the last session,
+        // reset them so the first player to approach activates them
+        for (SpawnerData spawner : spawnerManager.getAllSpawners()) {
+            spawner.setSpawnerStop(true);
+        }
+        recalculateMaxRange();
+
+        // Players may already be online after a reload
+        Scheduler.runTask(this::trackOnlinePlayers);
+        reconcileTask = Scheduler.runTaskTimer(this::reconcile, RECONCILE_INTERVAL_TICKS, RECONCILE_INTERVAL_TICKS);
     }
 
-    private void scheduleRegionSpecificCheck(SpawnerData spawner) {
-        Location spawnerLoc = spawner.getSpawnerLocation();
-        World world = spawnerLoc.getWorld();
-        if (world == null) return;
+    private void recalculateMaxRange() {
+        int range = plugin.getConfig().getInt("spawner_properties.default.range", 16);
+        for (SpawnerData spawner : spawnerManager.getAllSpawners()) {
+            range = Math.max(range, spawner.getSpawnerRange());
+        }
+        this.maxRange = range;
+    }
+
+    private void trackOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Scheduler.runEntityTask(player, () -> updatePlayer(player.getUniqueId(), player.getLocation()));
+        }
+    }
+
+    // Drops players that left without a quit event and refreshes everyone else from their real position,
+    // which re-evaluates the spawners around both the recorded and the actual position
+    private void reconcile() {
+        for (UUID playerId : new ArrayList<>(playerPositions.keySet())) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline()) {
+                removePlayer(playerId);
+            }
+        }
+        trackOnlinePlayers();
+    }
+
+    // ===============================================================
+    //                      Player Movement
+    // ===============================================================
 
-        // Schedule the actual entity checking in the correct region
-        Scheduler.runLocationTask(spawnerLoc, () -> {
-            boolean playerFound = isPlayerInRange(spawner, spawnerLoc, world);
-            boolean shouldStop = !playerFound;
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ() && from.getWorld() == to.getWorld()) {
+            return;
+        }
+        updatePlayer(event.getPlayer().getUniqueId(), to);
+    }
 
-            if (spawner.getSpawnerStop() != shouldStop) {
-                spawner.setSpawnerStop(shouldStop);
-                handleSpawnerStateChange(spawner, shouldStop);
+    // Riding players fire no move events of their own
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ() && from.getWorld() == to.getWorld()) {
+            return;
+        }
+
+        for (Entity passenger : event.getVehicle().getPassengers()) {
+            if (passenger instanceof Player player) {
+                updatePlayer(player.getUniqueId(), to);
             }
-        });
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        updatePlayer(event.getPlayer().getUniqueId(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        updatePlayer(player.getUniqueId(), player.getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        updatePlayer(event.getPlayer().getUniqueId(), event.getRespawnLocation());
     }
 
-    private void updateSpawnerStatus(SpawnerData spawner) {
-        Location spawnerLoc = spawner.getSpawnerLocation();
-        World world = spawnerLoc.getWorld();
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        removePlayer(event.getPlayer().getUniqueId());
+    }
+
+    private void updatePlayer(UUID playerId, Location to) {
+        if (to == null) return;
+        World world = to.getWorld();
         if (world == null) return;
 
-        boolean playerFound = isPlayerInRange(spawner, spawnerLoc, world);
-        boolean shouldStop = !playerFound;
+        PlayerPosition next = new PlayerPosition(world.getName(), to.getX(), to.getY(), to.getZ());
+        PlayerPosition previous = playerPositions.put(playerId, next);
 
-        if (spawner.getSpawnerStop() != shouldStop) {
-            spawner.setSpawnerStop(shouldStop);
-            handleSpawnerStateChange(spawner, shouldStop);
+        moveBetweenChunks(playerId, previous, next);
+
+        // Spawners around the old position may have lost this player, those around the new one may gain it
+        if (previous != null) {
+            refreshSpawnersAround(playerId, previous, next);
+        }
+        refreshSpawnersAround(playerId, next, next);
+    }
+
+    private void removePlayer(UUID playerId) {
+        PlayerPosition previous = playerPositions.remove(playerId);
+        if (previous == null) return;
+
+        moveBetweenChunks(playerId, previous, null);
+        refreshSpawnersAround(playerId, previous, null);
+    }
+
+    private void moveBetweenChunks(UUID playerId, PlayerPosition previous, PlayerPosition next) {
+        if (previous != null && next != null && previous.world().equals(next.world())
+                && previous.chunkKey() == next.chunkKey()) {
+            return;
+        }
+
+        if (previous != null) {
+            Map<Long, Set<UUID>> worldChunks = chunkPlayers.get(previous.world());
+            if (worldChunks != null) {
+                worldChunks.computeIfPresent(previous.chunkKey(), (key, players) -> {
+                    players.remove(playerId);
+                    return players.isEmpty() ? null : players;
+                });
+            }
+        }
+
+        if (next != null) {
+            chunkPlayers.computeIfAbsent(next.world(), k -> new ConcurrentHashMap<>())
+                    .compute(next.chunkKey(), (key, players) -> {
+                        if (players == null) players = ConcurrentHashMap.newKeySet();
+                        players.add(playerId);
+                        return players;
+                    });
+        }
+    }
+
+    private void refreshSpawnersAround(UUID playerId, PlayerPosition center, PlayerPosition current) {
+        List<SpawnerData> nearby = spawnerManager.getSpawnersInRange(center.world(),
+                center.blockX(), center.blockY(), center.blockZ(), maxRange);
+        for (SpawnerData spawner : nearby) {
+            updateMembership(spawner, playerId, current);
         }
     }
 
-    private boolean isPlayerInRange(SpawnerData spawner, Location spawnerLoc, World world) {
+    // ===============================================================
+    //                      Spawner Tracking
+    // ===============================================================
+
+    /**
+     * Starts tracking a newly registered spawner, activating it right away if
+     * a player is already within its range
+     *
+     * @param spawner The spawner that was added
+     */
+    public void trackSpawner(SpawnerData spawner) {
+        Location loc = spawner.getSpawnerLocation();
+        World world = loc.getWorld();
+        if (world == null) return;
+
         int range = spawner.getSpawnerRange();
-        double rangeSquared = range * range;
+        if (range > maxRange) {
+            maxRange = range;
+        }
+
+        Map<Long, Set<UUID>> worldChunks = chunkPlayers.get(world.getName());
+        if (worldChunks == null) return;
+
+        int x = loc.getBlockX();
+        int z = loc.getBlockZ();
+        for (int cx = (x - range) >> 4; cx <= (x + range) >> 4; cx++) {
+            for (int cz = (z - range) >> 4; cz <= (z + range) >> 4; cz++) {
+                Set<UUID> players = worldChunks.get(SpawnerLocationIndex.chunkKey(cx, cz));
+                if (players == null) continue;
+
+                for (UUID playerId : players) {
+                    PlayerPosition position = playerPositions.get(playerId);
+                    if (position != null) {
+                        updateMembership(spawner, playerId, position);
+                    }
+                }
+            }
+        }
+    }
 
-        // In Folia, we're now running this in the correct region thread,
-        // so we can safely check for nearby entities
-        Collection<Player> nearbyPlayers = world.getNearbyPlayers(spawnerLoc, range, range, range);
+    /**
+     * Stops tracking a spawner that was removed
+     *
+     * @param spawner The spawner that was removed
+     */
+    public void untrackSpawner(SpawnerData spawner) {
+        playersInRange.remove(spawner.getSpawnerId());
+        stopSpawnerTask(spawner);
+    }
+
+    private void updateMembership(SpawnerData spawner, UUID playerId, PlayerPosition position) {
+        boolean inRange = position != null && position.isInRange(spawner);
+        String spawnerId = spawner.getSpawnerId();
+        boolean[] stateChanged = new boolean[1];
+
+        if (inRange) {
+            playersInRange.compute(spawnerId, (id, players) -> {
+                if (players == null) players = new HashSet<>();
+                synchronized (players) {
+                    stateChanged[0] = players.isEmpty();
+                    players.add(playerId);
+                }
+                return players;
+            });
+        } else {
+            // Only spawners with a player in range have an entry, most of the range cube is skipped here
+            if (playersInRange.get(spawnerId) == null) return;
+            playersInRange.computeIfPresent(spawnerId, (id, players) -> {
+                synchronized (players) {
+                    if (!players.remove(playerId) || !players.isEmpty()) return players;
+                }
+                // Drop the emptied set so idle spawners hold no entry
+                stateChanged[0] = true;
+                return null;
+            });
+        }
 
-        for (Player player : nearbyPlayers) {
-            if (player.getLocation().distanceSquared(spawnerLoc) <= rangeSquared) {
-                return true;
+        if (stateChanged[0]) {
+            // Apply on the spawner's region, re-reading the player set so that
+            // quick enter/leave sequences settle on the latest state
+            Scheduler.runLocationTask(spawner.getSpawnerLocation(), () -> applySpawnerState(spawner));
+        }
+    }
+
+    private void applySpawnerState(SpawnerData spawner) {
+        Set<UUID> players = playersInRange.get(spawner.getSpawnerId());
+        boolean shouldStop;
+        if (players == null) {
+            shouldStop = true;
+        } else {
+            synchronized (players) {
+                shouldStop = players.isEmpty();
             }
         }
-        return false;
+
+        if (spawner.getSpawnerStop() != shouldStop) {
+            spawner.setSpawnerStop(shouldStop);
+            handleSpawnerStateChange(spawner, shouldStop);
+        }
     }
 
     private void handleSpawnerStateChange(SpawnerData spawner, boolean shouldStop) {
@@ -116,28 +343,53 @@ public class SpawnerRangeChecker {
     }
 
     private void startSpawnerTask(SpawnerData spawner) {
-        stopSpawnerTask(spawner);
-
         spawner.setLastSpawnTime(System.currentTimeMillis() + spawner.getSpawnDelay());
-        Scheduler.Task task = Scheduler.runTaskTimer(() -> {
-            if (!spawner.getSpawnerStop()) {
-                spawnerLootGenerator.spawnLootToSpawner(spawner);
-            }
-        }, 0L, spawner.getSpawnDelay());
-
-        spawnerTasks.put(spawner.getSpawnerId(), task);
+        lootScheduler.schedule(spawner, spawner.getSpawnDelay());
     }
 
     public void stopSpawnerTask(SpawnerData spawner) {
-        Scheduler.Task task = spawnerTasks.remove(spawner.getSpawnerId());
-        if (task != null) {
-            task.cancel();
-        }
+        lootScheduler.cancel(spawner.getSpawnerId());
     }
 
     public void cleanup() {
-        spawnerTasks.values().forEach(Scheduler.Task::cancel);
-        spawnerTasks.clear();
+        if (reconcileTask != null) {
+            reconcileTask.cancel();
+            reconcileTask = null;
+        }
+        lootScheduler.shutdown();
         playersInRange.clear();
+        playerPositions.clear();
+        chunkPlayers.clear();
+    }
+
+    private record PlayerPosition(String world, double x, double y, double z) {
+        int blockX() {
+            return (int) Math.floor(x);
+        }
+
+        int blockY() {
+            return (int) Math.floor(y);
+        }
+
+        int blockZ() {
+            return (int) Math.floor(z);
+        }
+
+        long chunkKey() {
+            return SpawnerLocationIndex.chunkKey(blockX() >> 4, blockZ() >> 4);
+        }
+
+        boolean isInRange(SpawnerData spawner) {
+            Location loc = spawner.getSpawnerLocation();
+            World spawnerWorld = loc.getWorld();
+            if (spawnerWorld == null || !spawnerWorld.getName().equals(world)) return false;
+
+            // Same check as Location#distanceSquared against the spawner block corner
+            double dx = x - loc.getX();
+            double dy = y - loc.getY();
+            double dz = z - loc.getZ();
+            int range = spawner.getSpawnerRange();
+            return dx * dx + dy * dy + dz * dz <= (double) range * range;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import java.util.Locale;
+
+/**
+ * Order in which stored items are laid out in the spawner storage
+ */
+public enum InventorySortMode {
+    // Alphabetical by material name
+    MATERIAL,
+    // Largest stored amount first
+    AMOUNT,
+    // Highest total sell value first
+    SELL_VALUE;
+
+    /**
+     * Parses a sort mode from config, falling back to MATERIAL for unknown values
+     *
+     * @param value The configured value, may be null
+     * @return The matching sort mode
+     */
+    public static InventorySortMode fromConfig(String value) {
+        if (value == null) return MATERIAL;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return MATERIAL;
+        }
+    }
+}
\ No newline at end of file
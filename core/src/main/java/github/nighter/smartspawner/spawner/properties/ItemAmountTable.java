@@ -0,0 +1,208 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import java.util.Arrays;
+
+/**
+ * Stored amounts keyed by interned signature id, without boxing.
+ *
+ * Most spawners hold only a few distinct items, so amounts start in small parallel arrays sorted
+ * by id and searched with a binary search. Past SMALL_LIMIT items the table switches to an
+ * open-addressing hash table with linear probing. Not thread-safe; the owning inventory guards
+ * all access.
+ */
+final class ItemAmountTable {
+    private static final int SMALL_LIMIT = 16;
+    private static final int EMPTY = -1;
+
+    @FunctionalInterface
+    interface AmountConsumer {
+        void accept(int id, long amount);
+    }
+
+    @FunctionalInterface
+    interface AmountVisitor {
+        // Returns false to stop the iteration
+        boolean visit(int id, long amount);
+    }
+
+    // Sorted ids in small mode, hash slots holding EMPTY or an id in hash mode
+    private int[] ids = new int[4];
+    private long[] amounts = new long[4];
+    private int size;
+    private boolean hashed;
+
+    int size() {
+        return size;
+    }
+
+    long get(int id) {
+        int index = hashed ? findSlot(id) : Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 && (!hashed || ids[index] == id) ? amounts[index] : 0;
+    }
+
+    /**
+     * Sets the amount stored for an id, removing the id when the amount is zero
+     */
+    void put(int id, long amount) {
+        if (amount <= 0) {
+            remove(id);
+        } else if (hashed) {
+            putHashed(id, amount);
+        } else {
+            putSmall(id, amount);
+        }
+    }
+
+    void forEach(AmountConsumer consumer) {
+        if (!hashed) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(ids[i], amounts[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != EMPTY) {
+                consumer.accept(ids[i], amounts[i]);
+            }
+        }
+    }
+
+    /**
+     * Visits entries in place until the visitor returns false, the table must not be modified meanwhile
+     */
+    void forEachWhile(AmountVisitor visitor) {
+        if (!hashed) {
+            for (int i = 0; i < size; i++) {
+                if (!visitor.visit(ids[i], amounts[i])) return;
+            }
+            return;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != EMPTY && !visitor.visit(ids[i], amounts[i])) return;
+        }
+    }
+
+    private void putSmall(int id, long amount) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            amounts[index] = amount;
+            return;
+        }
+
+        if (size == SMALL_LIMIT) {
+            promote();
+            putHashed(id, amount);
+            return;
+        }
+
+        int insertAt = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.min(size * 2, SMALL_LIMIT));
+            amounts = Arrays.copyOf(amounts, ids.length);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        System.arraycopy(amounts, insertAt, amounts, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        amounts[insertAt] = amount;
+        size++;
+    }
+
+    private void promote() {
+        int[] oldIds = ids;
+        long[] oldAmounts = amounts;
+        int oldSize = size;
+
+        rehash(SMALL_LIMIT * 4);
+        hashed = true;
+        for (int i = 0; i < oldSize; i++) {
+            putHashed(oldIds[i], oldAmounts[i]);
+        }
+    }
+
+    private void rehash(int capacity) {
+        ids = new int[capacity];
+        amounts = new long[capacity];
+        Arrays.fill(ids, EMPTY);
+        size = 0;
+    }
+
+    private void putHashed(int id, long amount) {
+        int slot = findSlot(id);
+        if (ids[slot] == id) {
+            amounts[slot] = amount;
+            return;
+        }
+
+        // Keep the table at most half full so probe sequences stay short
+        if ((size + 1) * 2 > ids.length) {
+            int[] oldIds = ids;
+            long[] oldAmounts = amounts;
+            rehash(ids.length * 2);
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != EMPTY) {
+                    putHashed(oldIds[i], oldAmounts[i]);
+                }
+            }
+            slot = findSlot(id);
+        }
+
+        ids[slot] = id;
+        amounts[slot] = amount;
+        size++;
+    }
+
+    // Slot holding the id, or the empty slot where it would be inserted
+    private int findSlot(int id) {
+        int mask = ids.length - 1;
+        int slot = mix(id) & mask;
+        while (ids[slot] != EMPTY && ids[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void remove(int id) {
+        if (!hashed) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) return;
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(amounts, index + 1, amounts, index, size - index - 1);
+            size--;
+            return;
+        }
+
+        int slot = findSlot(id);
+        if (ids[slot] != id) return;
+        ids[slot] = EMPTY;
+        size--;
+
+        if (size == 0) {
+            // Emptied inventories go back to the small arrays
+            ids = new int[4];
+            amounts = new long[4];
+            hashed = false;
+            return;
+        }
+
+        // Shift later entries of the probe run back so lookups never stop at the hole
+        int mask = ids.length - 1;
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (ids[next] != EMPTY) {
+            int home = mix(ids[next]) & mask;
+            // Move the entry if its home slot is not between the hole and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                ids[hole] = ids[next];
+                amounts[hole] = amounts[next];
+                ids[next] = EMPTY;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache from item stacks to their interned signatures, shared by every loot and GUI thread.
+ *
+ * The table is a fixed array split into small sets of slots. A lookup reads one set without locking
+ * and a miss that finds its set full replaces the least recently used slot of that set, so eviction
+ * is LRU sampled over a few candidates instead of a global access order that every read must update.
+ */
+public final class SignatureCache {
+    // Slots per set, the number of eviction candidates compared on a full set
+    private static final int WAYS = 4;
+
+    private record Entry(ItemStack key, int hash, VirtualInventory.ItemSignature signature) {
+    }
+
+    /**
+     * Snapshot of the cache counters
+     *
+     * @param capacity The maximum number of cached items
+     * @param hits Lookups answered from the cache
+     * @param misses Lookups that had to resolve the signature
+     * @param evictions Entries replaced to make room
+     */
+    public record Stats(int capacity, long hits, long misses, long evictions) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("capacity=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%",
+                    capacity, hits, misses, evictions, hitRate() * 100);
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    // Last access time per slot, written without ordering since recency only needs to be approximate
+    private final AtomicLongArray lastAccess;
+    private final int setMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    SignatureCache(int maximumSize) {
+        int capacity = capacityFor(maximumSize);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.lastAccess = new AtomicLongArray(capacity);
+        this.setMask = capacity / WAYS - 1;
+    }
+
+    /**
+     * Gets the number of slots a cache of the given size allocates, a power of two number of sets
+     * holding at least maximumSize entries
+     *
+     * @param maximumSize The requested maximum number of cached items
+     * @return The actual capacity
+     */
+    static int capacityFor(int maximumSize) {
+        int sets = Integer.highestOneBit(Math.max(1, (maximumSize + WAYS - 1) / WAYS));
+        if (sets * WAYS < maximumSize) {
+            sets <<= 1;
+        }
+        return sets * WAYS;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Gets the cached signature of an item, resolving and caching it on a miss
+     *
+     * @param item The item to look up, it is copied before being kept as a key
+     * @param resolver Creates the signature on a miss
+     * @return The signature
+     */
+    VirtualInventory.ItemSignature get(ItemStack item, Function<ItemStack, VirtualInventory.ItemSignature> resolver) {
+        int hash = spread(item.hashCode());
+        int base = (hash & setMask) * WAYS;
+
+        for (int i = base; i < base + WAYS; i++) {
+            Entry entry = slots.get(i);
+            if (entry != null && entry.hash() == hash && (entry.key() == item || entry.key().equals(item))) {
+                lastAccess.lazySet(i, System.nanoTime());
+                hits.increment();
+                return entry.signature();
+            }
+        }
+
+        misses.increment();
+        VirtualInventory.ItemSignature signature = resolver.apply(item);
+        insert(base, new Entry(item.clone(), hash, signature));
+        return signature;
+    }
+
+    private void insert(int base, Entry entry) {
+        int victim = base;
+        long oldest = Long.MAX_VALUE;
+        for (int i = base; i < base + WAYS; i++) {
+            if (slots.get(i) == null) {
+                victim = i;
+                break;
+            }
+            long accessed = lastAccess.get(i);
+            if (accessed < oldest) {
+                oldest = accessed;
+                victim = i;
+            }
+        }
+
+        // A racing insert into the same slot simply wins or loses, both entries are valid
+        if (slots.getAndSet(victim, entry) != null) {
+            evictions.increment();
+        }
+        lastAccess.lazySet(victim, System.nanoTime());
+    }
+
+    Stats stats() {
+        return new Stats(capacity(), hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
\ No newline at end of file
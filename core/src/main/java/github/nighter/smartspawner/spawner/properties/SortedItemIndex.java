@@ -0,0 +1,79 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import java.util.*;
+
+/**
+ * Keeps the items of one virtual inventory ordered for a single sort mode.
+ *
+ * Entries are immutable snapshots of a signature and its amount, so a change is one removal and
+ * one insertion in the tree instead of re-sorting everything. Not thread-safe; the owning
+ * inventory guards all access.
+ */
+final class SortedItemIndex {
+    private record Entry(VirtualInventory.ItemSignature signature, long amount, double value) {
+    }
+
+    // Ties are broken by material and then by the signature id, so no two entries compare equal
+    private static final Comparator<Entry> BY_MATERIAL = Comparator
+            .comparingInt((Entry e) -> e.signature().getMaterialRank())
+            .thenComparingInt(e -> e.signature().getId());
+    private static final Comparator<Entry> BY_AMOUNT = Comparator
+            .comparingLong(Entry::amount).reversed()
+            .thenComparing(BY_MATERIAL);
+    private static final Comparator<Entry> BY_VALUE = Comparator
+            .comparingDouble(Entry::value).reversed()
+            .thenComparing(BY_MATERIAL);
+
+    private final InventorySortMode mode;
+    private final int priceGeneration;
+    private final TreeSet<Entry> order;
+    private final Map<VirtualInventory.ItemSignature, Entry> entries = new HashMap<>();
+
+    SortedItemIndex(InventorySortMode mode, int priceGeneration) {
+        this.mode = mode;
+        this.priceGeneration = priceGeneration;
+        this.order = new TreeSet<>(switch (mode) {
+            case MATERIAL -> BY_MATERIAL;
+            case AMOUNT -> BY_AMOUNT;
+            case SELL_VALUE -> BY_VALUE;
+        });
+    }
+
+    int getPriceGeneration() {
+        return priceGeneration;
+    }
+
+    /**
+     * Moves a signature to the position for its new amount, or drops it when the amount is zero
+     */
+    void update(VirtualInventory.ItemSignature signature, long amount) {
+        Entry previous = entries.remove(signature);
+        if (previous != null) {
+            order.remove(previous);
+        }
+        if (amount <= 0) return;
+
+        double value = mode == InventorySortMode.SELL_VALUE
+                ? VirtualInventory.getUnitPrice(signature) * amount
+                : 0;
+        Entry entry = new Entry(signature, amount, value);
+        entries.put(signature, entry);
+        order.add(entry);
+    }
+
+    int size() {
+        return order.size();
+    }
+
+    /**
+     * Copies the entries in order into the given arrays, which must hold at least size() elements
+     */
+    void copyTo(VirtualInventory.ItemSignature[] signatures, long[] amounts) {
+        int i = 0;
+        for (Entry entry : order) {
+            signatures[i] = entry.signature();
+            amounts[i] = entry.amount();
+            i++;
+        }
+    }
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package github.nighter.smartspawner.spawner.properties;
 import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.commands.hologram.SpawnerHologram;
 import github.nighter.smartspawner.language.LanguageManager;
+import github.nighter.smartspawner.spawner.gui.synchronization.SpawnerGuiViewManager;
 import github.nighter.smartspawner.spawner.loot.EntityLootConfig;
 import github.nighter.smartspawner.spawner.loot.EntityLootRegistry;
 import github.nighter.smartspawner.spawner.loot.LootItem;
@@ -15,13 +16,11 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
-import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
 
 public class SpawnerData {
-    private static final Logger logger = Logger.getLogger("SmartSpawnerConfig");
-
     private final SmartSpawner plugin;
     private final EntityLootRegistry lootRegistry;
 
@@ -29,25 +28,24 @@ public class SpawnerData {
     @Getter private final Location spawnerLocation;
     @Getter private final ReentrantLock lock = new ReentrantLock();
 
-    @Getter private Integer spawnerExp;
-    @Getter @Setter private Boolean spawnerActive;
-    @Getter @Setter private Integer spawnerRange;
-    @Getter @Setter private Boolean spawnerStop;
-    @Getter @Setter private Boolean isAtCapacity;
-    @Getter @Setter private Long lastSpawnTime;
-    @Getter @Setter private long spawnDelay;
+    // Boolean states packed into one word, so flag updates are a single CAS and never allocate
+    private static final int FLAG_ACTIVE = 1;
+    private static final int FLAG_STOP = 1 << 1;
+    private static final int FLAG_AT_CAPACITY = 1 << 2;
+    private final AtomicInteger flags = new AtomicInteger(FLAG_ACTIVE | FLAG_STOP);
+
+    @Getter private volatile int spawnerExp;
+    @Getter private volatile long lastSpawnTime;
     @Getter private EntityType entityType;
     @Getter @Setter private EntityLootConfig lootConfig;
-    @Getter @Setter private int maxStoragePages;
-    @Getter @Setter private int maxSpawnerLootSlots;
-    @Getter @Setter private int maxStoredExp;
-    @Getter @Setter private int minMobs;
-    @Getter @Setter private int maxMobs;
     @Getter private int stackSize;
     @Getter @Setter private int maxStackSize;
 
     @Getter @Setter private VirtualInventory virtualInventory;
-    @Getter private final Set<Material> filteredItems = new HashSet<>();
+    @Getter private final Set<Material> filteredItems = ConcurrentHashMap.newKeySet();
+    // Compiled loot table for the current entity type and filter, rebuilt only when either changes
+    private volatile LootTableCache lootTableCache;
+    private final Object lootTableLock = new Object();
 
     private SpawnerHologram hologram;
     @Getter @Setter private long cachedSpawnDelay = 0;
@@ -57,19 +55,12 @@ public class SpawnerData {
         this.spawnerId = id;
         this.spawnerLocation = location;
         this.entityType = type;
-        this.spawnerExp = 0;
-        this.spawnerActive = true;
-        this.spawnerStop = true;
-        this.isAtCapacity = false;
         this.stackSize = 1;
-        this.maxStackSize = plugin.getConfig().getInt("spawner_properties.default.max_stack_size", 1000);
-        this.maxStoragePages = plugin.getConfig().getInt("spawner_properties.default.max_storage_pages", 1);
-        this.maxSpawnerLootSlots = 45;
+        this.maxStackSize = plugin.getSpawnerProfile().defaultMaxStackSize();
         this.lootRegistry = plugin.getEntityLootRegistry();
         // Initialize loot config based on entity type
         this.lootConfig = lootRegistry.getLootConfig(entityType);
-        loadConfigValues();
-        this.virtualInventory = new VirtualInventory(maxSpawnerLootSlots);
+        this.virtualInventory = new VirtualInventory(getMaxSpawnerLootSlots());
         if (plugin.getConfig().getBoolean("hologram.enabled", false)) {
             this.hologram = new SpawnerHologram(location);
             this.hologram.createHologram();
@@ -77,52 +68,6 @@ public class SpawnerData {
         }
     }
 
-    private void loadConfigValues() {
-        int baseMaxStoredExp = plugin.getConfig().getInt("spawner_properties.default.max_stored_exp", 1000);
-        int baseMinMobs = plugin.getConfig().getInt("spawner_properties.default.min_mobs", 1);
-        int baseMaxMobs = plugin.getConfig().getInt("spawner_properties.default.max_mobs", 4);
-        long baseSpawnerDelay = plugin.getTimeFromConfig("spawner_properties.default.delay", "25s");
-        int maxStoragePages = plugin.getConfig().getInt("spawner_properties.default.max_storage_pages", 1);
-
-        if (maxStoragePages <= 0) {
-            logger.warning("Invalid max_storage_pages value. Setting to default: 1");
-            maxStoragePages = 1;
-        }
-
-        this.maxSpawnerLootSlots = (45 * maxStoragePages) * stackSize;
-        if (this.maxSpawnerLootSlots < 0) this.maxSpawnerLootSlots = 45;
-
-        this.maxStoredExp = baseMaxStoredExp * stackSize;
-        if (this.maxStoredExp <= 0) {
-            logger.warning("Invalid max_stored_exp value after scaling. Setting to base value: " + baseMaxStoredExp);
-            this.maxStoredExp = baseMaxStoredExp;
-        }
-
-        this.minMobs = baseMinMobs * stackSize;
-        if (this.minMobs <= 0) {
-            logger.warning("Invalid min_mobs value after scaling. Setting to base value: " + baseMinMobs);
-            this.minMobs = baseMinMobs;
-        }
-
-        this.maxMobs = baseMaxMobs * stackSize;
-        if (this.maxMobs <= 0 || this.maxMobs <= this.minMobs) {
-            logger.warning("Invalid max_mobs value after scaling. Setting to: " + (this.minMobs + stackSize));
-            this.maxMobs = this.minMobs + stackSize;
-        }
-
-        this.spawnDelay = baseSpawnerDelay;
-        if (this.spawnDelay <= 0) {
-            logger.warning("Invalid delay value. Setting to default: 20");
-            this.spawnDelay = 400;
-        }
-
-        this.spawnerRange = plugin.getConfig().getInt("spawner_properties.default.range");
-        if (this.spawnerRange <= 0) {
-            logger.warning("Invalid range value. Setting to default: 16");
-            this.spawnerRange = 16;
-        }
-    }
-
     public void setStackSize(int stackSize) {
         lock.lock();
         try {
@@ -154,47 +99,73 @@ public class SpawnerData {
             return;
         }
 
-        // Get current consolidated items
-        Map<VirtualInventory.ItemSignature, Long> currentItems = virtualInventory.getConsolidatedItems();
-
-        // Calculate new max slots
-        int newMaxSlots = (45 * this.maxStoragePages) * stackSize;
-
-        // Create new inventory with new size
-        VirtualInventory newInventory = new VirtualInventory(newMaxSlots);
-
-        // Convert consolidated items to ItemStack list for adding to new inventory
-        List<ItemStack> itemsToTransfer = new ArrayList<>();
-        currentItems.forEach((signature, amount) -> {
-            ItemStack template = signature.getTemplate();
-            while (amount > 0) {
-                int batchSize = (int) Math.min(amount, Integer.MAX_VALUE);
-                ItemStack batch = template.clone();
-                batch.setAmount(batchSize);
-                itemsToTransfer.add(batch);
-                amount -= batchSize;
-            }
-        });
-
-        // Update stack size and config values
+        // Scaled values follow from the new stack size
         this.stackSize = stackSize;
-        loadConfigValues();
-        this.lastSpawnTime = System.currentTimeMillis() + this.spawnDelay;
+        this.lastSpawnTime = System.currentTimeMillis() + getSpawnDelay();
 
-        // Add items to new inventory
-        newInventory.addItems(itemsToTransfer);
-        this.virtualInventory = newInventory;
+        // Resize in place so the stored items are never copied
+        virtualInventory.resize(getMaxSpawnerLootSlots());
         updateHologramData();
+        markGuiDirty(SpawnerGuiViewManager.UPDATE_ALL);
     }
 
     public void decreaseStackSizeByOne() {
         this.stackSize -= 1;
+        virtualInventory.resize(getMaxSpawnerLootSlots());
         updateHologramData();
+        markGuiDirty(SpawnerGuiViewManager.UPDATE_ALL);
     }
 
     public void setSpawnerExp(int exp) {
-        this.spawnerExp = Math.min(exp, maxStoredExp);
+        this.spawnerExp = Math.min(exp, getMaxStoredExp());
         updateHologramData();
+        markGuiDirty(SpawnerGuiViewManager.UPDATE_EXP | SpawnerGuiViewManager.UPDATE_INFO);
+    }
+
+    public void setLastSpawnTime(long lastSpawnTime) {
+        this.lastSpawnTime = lastSpawnTime;
+        markGuiDirty(SpawnerGuiViewManager.UPDATE_TIMER);
+    }
+
+    // Publishes a change to the open GUIs of this spawner, a no-op while nobody is viewing it
+    private void markGuiDirty(int updateFlags) {
+        SpawnerGuiViewManager viewManager = plugin.getSpawnerGuiViewManager();
+        if (viewManager != null) {
+            viewManager.markDirty(this, updateFlags);
+        }
+    }
+
+    // Settings shared by all spawners, scaled by this spawner's stack size
+    private SpawnerProfile profile() {
+        return plugin.getSpawnerProfile();
+    }
+
+    public int getMaxStoragePages() {
+        return profile().maxStoragePages();
+    }
+
+    public int getMaxSpawnerLootSlots() {
+        return profile().maxSpawnerLootSlots(stackSize);
+    }
+
+    public int getMaxStoredExp() {
+        return profile().maxStoredExp(stackSize);
+    }
+
+    public int getMinMobs() {
+        return profile().minMobs(stackSize);
+    }
+
+    public int getMaxMobs() {
+        return profile().maxMobs(stackSize);
+    }
+
+    public long getSpawnDelay() {
+        return profile().spawnDelay();
+    }
+
+    public int getSpawnerRange() {
+        return profile().range();
     }
 
     public Map<Integer, ItemStack> getDisplayInventory() {
@@ -207,9 +178,9 @@ public class SpawnerData {
                     stackSize,
                     entityType,
                     spawnerExp,
-                    maxStoredExp,
+                    getMaxStoredExp(),
                     virtualInventory.getUsedSlots(),
-                    maxSpawnerLootSlots
+                    getMaxSpawnerLootSlots()
             );
         }
     }
@@ -223,9 +194,9 @@ public class SpawnerData {
                     stackSize,
                     entityType,
                     spawnerExp,
-                    maxStoredExp,
+                    getMaxStoredExp(),
                     virtualInventory.getUsedSlots(),
-                    maxSpawnerLootSlots
+                    getMaxSpawnerLootSlots()
             );
         }
     }
@@ -253,56 +224,106 @@ public class SpawnerData {
     }
 
     public boolean isCompletelyFull() {
-        return virtualInventory.getUsedSlots() >= maxSpawnerLootSlots
-                && spawnerExp >= maxStoredExp;
+        return virtualInventory.getUsedSlots() >= getMaxSpawnerLootSlots()
+                && spawnerExp >= getMaxStoredExp();
     }
 
     public boolean updateCapacityStatus() {
-        boolean newStatus = isCompletelyFull();
-        if (newStatus != isAtCapacity) {
-            isAtCapacity = newStatus;
-            return true;
+        return setFlag(FLAG_AT_CAPACITY, isCompletelyFull());
+    }
+
+    public boolean getSpawnerActive() {
+        return (flags.get() & FLAG_ACTIVE) != 0;
+    }
+
+    public void setSpawnerActive(boolean active) {
+        setFlag(FLAG_ACTIVE, active);
+    }
+
+    public boolean getSpawnerStop() {
+        return (flags.get() & FLAG_STOP) != 0;
+    }
+
+    public void setSpawnerStop(boolean stop) {
+        setFlag(FLAG_STOP, stop);
+    }
+
+    public boolean getIsAtCapacity() {
+        return (flags.get() & FLAG_AT_CAPACITY) != 0;
+    }
+
+    public void setIsAtCapacity(boolean atCapacity) {
+        setFlag(FLAG_AT_CAPACITY, atCapacity);
+    }
+
+    // Sets or clears one flag, returning whether its value changed
+    private boolean setFlag(int flag, boolean value) {
+        while (true) {
+            int current = flags.get();
+            int updated = value ? current | flag : current & ~flag;
+            if (current == updated) return false;
+            if (flags.compareAndSet(current, updated)) {
+                // Every flag decides what the countdown line shows
+                markGuiDirty(SpawnerGuiViewManager.UPDATE_TIMER);
+                return true;
+            }
         }
-        return false;
     }
 
     public void setEntityType(EntityType newType) {
-        this.entityType = newType;
-        this.lootConfig = lootRegistry.getLootConfig(newType);
+        synchronized (lootTableLock) {
+            this.entityType = newType;
+            this.lootConfig = lootRegistry.getLootConfig(newType);
+            this.lootTableCache = null;
+        }
         updateHologramData();
     }
 
     public boolean toggleItemFilter(Material material) {
-        boolean wasFiltered = filteredItems.contains(material);
+        synchronized (lootTableLock) {
+            boolean wasFiltered = filteredItems.contains(material);
 
-        if (wasFiltered) {
-            filteredItems.remove(material);
-        } else {
-            filteredItems.add(material);
-        }
+            if (wasFiltered) {
+                filteredItems.remove(material);
+            } else {
+                filteredItems.add(material);
+            }
+            this.lootTableCache = null;
 
-        return !wasFiltered; // Return new state
+            return !wasFiltered; // Return new state
+        }
     }
 
-    // Modified method to get valid loot items that respects the filter
+    // Get valid loot items that respect the filter, served from the compiled table
     public List<LootItem> getValidLootItems() {
-        if (lootConfig == null) {
-            return Collections.emptyList();
+        LootTableCache cache = lootTableCache;
+        if (cache != null && cache.generation() == lootRegistry.getGeneration()) {
+            return cache.items();
         }
+        return compileLootTable();
+    }
 
-        // Get all items first
-        List<LootItem> allItems = lootConfig.getAllItems();
+    private List<LootItem> compileLootTable() {
+        synchronized (lootTableLock) {
+            int generation = lootRegistry.getGeneration();
+            LootTableCache cache = lootTableCache;
+            if (cache != null && cache.generation() == generation) {
+                return cache.items();
+            }
+
+            // Pick up the rebuilt config for this entity type in case the registry was reloaded
+            this.lootConfig = lootRegistry.getLootConfig(entityType);
 
-        // Filter based on equipment setting and filter list
-        return allItems.stream()
-                .filter(item -> {
-                    // Check if it's in the filtered list
-                    ItemStack example = item.createItemStack(new Random());
-                    return example != null && !filteredItems.contains(example.getType());
-                })
-                .collect(Collectors.toList());
+            List<LootItem> items = lootConfig != null
+                    ? lootConfig.getLootTable(filteredItems)
+                    : Collections.emptyList();
+            this.lootTableCache = new LootTableCache(items, generation);
+            return items;
+        }
     }
 
+    private record LootTableCache(List<LootItem> items, int generation) {}
+
     public int getEntityExperienceValue() {
         return lootConfig != null ? lootConfig.getExperience() : 0;
     }
@@ -0,0 +1,432 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Spatial index for spawners, bucketed first by world and then by chunk.
+ *
+ * Chunks are addressed by a packed long key in a primitive open-addressing table and
+ * every chunk keeps a small table of packed block positions. Point lookups therefore
+ * never allocate, and chunk or range queries only visit the chunks they overlap.
+ *
+ * Each world is guarded by its own StampedLock. Point lookups run as optimistic reads and
+ * only fall back to a shared read lock if a writer raced them, so lookups from different
+ * region threads never block each other. Writes only lock the world they touch.
+ */
+public class SpawnerLocationIndex {
+    private final Map<String, WorldBucket> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * Packs chunk coordinates into a single long key
+     *
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @return The packed chunk key
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Packs a block position into an int that is unique within its chunk
+     */
+    private static int blockKey(int x, int y, int z) {
+        return (y << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Indexes a spawner by its location, replacing any spawner already at that block
+     *
+     * @param spawner The spawner to index
+     * @return The spawner previously indexed at that block, or null
+     */
+    public SpawnerData put(SpawnerData spawner) {
+        Location loc = spawner.getSpawnerLocation();
+        World world = loc.getWorld();
+        if (world == null) return null;
+
+        int x = loc.getBlockX();
+        int y = loc.getBlockY();
+        int z = loc.getBlockZ();
+
+        WorldBucket bucket = worlds.computeIfAbsent(world.getName(), k -> new WorldBucket());
+        long key = chunkKey(x >> 4, z >> 4);
+
+        long stamp = bucket.lock.writeLock();
+        try {
+            ChunkBucket chunk = bucket.chunks.get(key);
+            if (chunk == null) {
+                chunk = new ChunkBucket();
+                bucket.chunks.put(key, chunk);
+            }
+
+            SpawnerData previous = chunk.put(blockKey(x, y, z), spawner);
+            if (previous == null) {
+                bucket.size++;
+            }
+            return previous;
+        } finally {
+            bucket.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a spawner from the index, but only if it is still the one indexed at its block
+     *
+     * @param spawner The spawner to remove
+     * @return true if the spawner was removed
+     */
+    public boolean remove(SpawnerData spawner) {
+        Location loc = spawner.getSpawnerLocation();
+        World world = loc.getWorld();
+        if (world == null) return false;
+
+        WorldBucket bucket = worlds.get(world.getName());
+        if (bucket == null) return false;
+
+        int x = loc.getBlockX();
+        int z = loc.getBlockZ();
+        long key = chunkKey(x >> 4, z >> 4);
+
+        long stamp = bucket.lock.writeLock();
+        try {
+            ChunkBucket chunk = bucket.chunks.get(key);
+            if (chunk == null || !chunk.remove(blockKey(x, loc.getBlockY(), z), spawner)) {
+                return false;
+            }
+
+            if (chunk.size == 0) {
+                bucket.chunks.remove(key);
+            }
+            bucket.size--;
+            return true;
+        } finally {
+            bucket.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the spawner at a location without allocating
+     *
+     * @param location The location to check
+     * @return The spawner at that block, or null if none exists
+     */
+    public SpawnerData get(Location location) {
+        World world = location.getWorld();
+        if (world == null) return null;
+        return get(world.getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Gets the spawner at a block position without allocating
+     *
+     * @param worldName The name of the world
+     * @param x The block X coordinate
+     * @param y The block Y coordinate
+     * @param z The block Z coordinate
+     * @return The spawner at that block, or null if none exists
+     */
+    public SpawnerData get(String worldName, int x, int y, int z) {
+        WorldBucket bucket = worlds.get(worldName);
+        if (bucket == null) return null;
+
+        long key = chunkKey(x >> 4, z >> 4);
+        int position = blockKey(x, y, z);
+
+        long stamp = bucket.lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            SpawnerData result = bucket.lookup(key, position);
+            if (bucket.lock.validate(stamp)) {
+                return result;
+            }
+        }
+
+        // A writer raced the optimistic read, retry under a shared read lock
+        stamp = bucket.lock.readLock();
+        try {
+            return bucket.lookup(key, position);
+        } finally {
+            bucket.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets all spawners inside a single chunk
+     *
+     * @param worldName The name of the world
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @return List of spawners in that chunk, empty if none
+     */
+    public List<SpawnerData> getSpawnersInChunk(String worldName, int chunkX, int chunkZ) {
+        WorldBucket bucket = worlds.get(worldName);
+        if (bucket == null) return Collections.emptyList();
+
+        long stamp = bucket.lock.readLock();
+        try {
+            ChunkBucket chunk = bucket.chunks.get(chunkKey(chunkX, chunkZ));
+            if (chunk == null) return Collections.emptyList();
+
+            List<SpawnerData> result = new ArrayList<>(chunk.size);
+            chunk.collect(result);
+            return result;
+        } finally {
+            bucket.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets all spawners inside a cube around a center location
+     *
+     * @param center The center location
+     * @param radius The radius in blocks along each axis
+     * @return List of spawners whose block lies inside the cube
+     */
+    public List<SpawnerData> getSpawnersInRange(Location center, int radius) {
+        World world = center.getWorld();
+        if (world == null) return Collections.emptyList();
+        return getSpawnersInRange(world.getName(), center.getBlockX(), center.getBlockY(), center.getBlockZ(), radius);
+    }
+
+    /**
+     * Gets all spawners inside a cube around a block position
+     *
+     * @param worldName The name of the world
+     * @param centerX The center block X coordinate
+     * @param centerY The center block Y coordinate
+     * @param centerZ The center block Z coordinate
+     * @param radius The radius in blocks along each axis
+     * @return List of spawners whose block lies inside the cube
+     */
+    public List<SpawnerData> getSpawnersInRange(String worldName, int centerX, int centerY, int centerZ, int radius) {
+        WorldBucket bucket = worlds.get(worldName);
+        if (bucket == null) return Collections.emptyList();
+
+        int minX = centerX - radius, maxX = centerX + radius;
+        int minY = centerY - radius, maxY = centerY + radius;
+        int minZ = centerZ - radius, maxZ = centerZ + radius;
+
+        List<SpawnerData> result = new ArrayList<>();
+        long stamp = bucket.lock.readLock();
+        try {
+            for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+                for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                    ChunkBucket chunk = bucket.chunks.get(chunkKey(cx, cz));
+                    if (chunk == null) continue;
+
+                    for (int i = 0; i < chunk.size; i++) {
+                        Location loc = chunk.spawners[i].getSpawnerLocation();
+                        int x = loc.getBlockX(), y = loc.getBlockY(), z = loc.getBlockZ();
+                        if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                            result.add(chunk.spawners[i]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            bucket.lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    /**
+     * Counts spawners indexed in a world
+     *
+     * @param worldName The name of the world
+     * @return Number of spawners in that world
+     */
+    public int countInWorld(String worldName) {
+        WorldBucket bucket = worlds.get(worldName);
+        return bucket != null ? bucket.size : 0;
+    }
+
+    public void clear() {
+        worlds.clear();
+    }
+
+    /**
+     * World buckets are never removed once created, so a writer can never end up
+     * inserting into a bucket that another thread has already unlinked.
+     */
+    private static final class WorldBucket {
+        private final StampedLock lock = new StampedLock();
+        private final ChunkTable chunks = new ChunkTable();
+        private volatile int size;
+
+        SpawnerData lookup(long key, int position) {
+            ChunkBucket chunk = chunks.get(key);
+            return chunk != null ? chunk.get(position) : null;
+        }
+    }
+
+    /**
+     * Small per-chunk table of packed block positions. Spawners are sparse, so a
+     * linear scan over a few entries beats hashing here.
+     *
+     * get() may run without a lock during an optimistic read, so it snapshots the
+     * arrays and bounds every access; a torn result is discarded by the caller.
+     */
+    private static final class ChunkBucket {
+        private int[] positions = new int[2];
+        private SpawnerData[] spawners = new SpawnerData[2];
+        private int size;
+
+        private int indexOf(int position) {
+            for (int i = 0; i < size; i++) {
+                if (positions[i] == position) return i;
+            }
+            return -1;
+        }
+
+        SpawnerData get(int position) {
+            int[] p = positions;
+            SpawnerData[] s = spawners;
+            int n = Math.min(size, Math.min(p.length, s.length));
+            for (int i = 0; i < n; i++) {
+                if (p[i] == position) return s[i];
+            }
+            return null;
+        }
+
+        SpawnerData put(int position, SpawnerData spawner) {
+            int index = indexOf(position);
+            if (index >= 0) {
+                SpawnerData previous = spawners[index];
+                spawners[index] = spawner;
+                return previous;
+            }
+
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                spawners = Arrays.copyOf(spawners, size * 2);
+            }
+            positions[size] = position;
+            spawners[size] = spawner;
+            size++;
+            return null;
+        }
+
+        boolean remove(int position, SpawnerData expected) {
+            int index = indexOf(position);
+            if (index < 0 || spawners[index] != expected) return false;
+
+            // Swap the last entry into the hole, order is not significant
+            size--;
+            positions[index] = positions[size];
+            spawners[index] = spawners[size];
+            spawners[size] = null;
+            return true;
+        }
+
+        void collect(Collection<SpawnerData> out) {
+            for (int i = 0; i < size; i++) {
+                out.add(spawners[i]);
+            }
+        }
+    }
+
+    /**
+     * Open-addressing hash table from packed chunk keys to chunk buckets,
+     * using linear probing and backward-shift deletion so no tombstones build up.
+     * Like ChunkBucket, get() tolerates running concurrently with a writer.
+     */
+    private static final class ChunkTable {
+        private static final float LOAD_FACTOR = 0.5f;
+
+        private long[] keys = new long[16];
+        private ChunkBucket[] values = new ChunkBucket[16];
+        private int size;
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        ChunkBucket get(long key) {
+            long[] k = keys;
+            ChunkBucket[] v = values;
+            int length = Math.min(k.length, v.length);
+            int mask = length - 1;
+            int pos = mix(key) & mask;
+            for (int probes = 0; probes < length; probes++) {
+                ChunkBucket value = v[pos];
+                if (value == null) return null;
+                if (k[pos] == key) return value;
+                pos = (pos + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(long key, ChunkBucket value) {
+            int mask = keys.length - 1;
+            int pos = mix(key) & mask;
+            while (values[pos] != null) {
+                if (keys[pos] == key) {
+                    values[pos] = value;
+                    return;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[pos] = key;
+            values[pos] = value;
+            if (++size > keys.length * LOAD_FACTOR) {
+                rehash(keys.length * 2);
+            }
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int pos = mix(key) & mask;
+            while (values[pos] != null) {
+                if (keys[pos] == key) {
+                    size--;
+                    shiftKeys(pos);
+                    return;
+                }
+                pos = (pos + 1) & mask;
+            }
+        }
+
+        private void shiftKeys(int pos) {
+            int mask = keys.length - 1;
+            int last;
+            while (true) {
+                pos = ((last = pos) + 1) & mask;
+                while (true) {
+                    if (values[pos] == null) {
+                        values[last] = null;
+                        return;
+                    }
+                    int slot = mix(keys[pos]) & mask;
+                    if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                    pos = (pos + 1) & mask;
+                }
+                keys[last] = keys[pos];
+                values[last] = values[pos];
+            }
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            ChunkBucket[] oldValues = values;
+            keys = new long[capacity];
+            values = new ChunkBucket[capacity];
+            int mask = capacity - 1;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] == null) continue;
+                int pos = mix(oldKeys[i]) & mask;
+                while (values[pos] != null) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = oldKeys[i];
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package github.nighter.smartspawner.spawner.properties;
 
 import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.spawner.lootgen.SpawnerRangeChecker;
 import github.nighter.smartspawner.spawner.utils.SpawnerFileHandler;
 import github.nighter.smartspawner.Scheduler;
 import org.bukkit.*;
@@ -12,9 +13,12 @@ import java.util.logging.Logger;
 
 public class SpawnerManager {
     private final SmartSpawner plugin;
-    private final Map<String, SpawnerData> spawners = new HashMap<>();
-    private final Map<LocationKey, SpawnerData> locationIndex = new HashMap<>();
-    private final Map<String, Set<SpawnerData>> worldIndex = new HashMap<>();
+    // All three indexes are concurrent; mutations of one spawner are serialized by a lock stripe
+    private final Map<String, SpawnerData> spawners = new ConcurrentHashMap<>();
+    private final SpawnerLocationIndex locationIndex = new SpawnerLocationIndex();
+    private final Map<String, Set<SpawnerData>> worldIndex = new ConcurrentHashMap<>();
+    private static final int LOCK_STRIPES = 64;
+    private final Object[] registryLocks = new Object[LOCK_STRIPES];
     private final SpawnerFileHandler spawnerFileHandler;
     private final Logger logger;
     // Set to keep track of confirmed ghost spawners to avoid repeated checks
@@ -23,6 +27,9 @@ public class SpawnerManager {
     public SpawnerManager(SmartSpawner plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            registryLocks[i] = new Object();
+        }
 
         // Initialize file handler
         this.spawnerFileHandler = plugin.getSpawnerFileHandler();
@@ -31,37 +38,6 @@ public class SpawnerManager {
         loadSpawnerData();
     }
 
-    /**
-     * Key class for efficient location-based spawner lookups
-     */
-    private static class LocationKey {
-        private final String world;
-        private final int x, y, z;
-
-        public LocationKey(Location location) {
-            this.world = location.getWorld().getName();
-            this.x = location.getBlockX();
-            this.y = location.getBlockY();
-            this.z = location.getBlockZ();
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof LocationKey)) return false;
-            LocationKey that = (LocationKey) o;
-            return x == that.x &&
-                    y == that.y &&
-                    z == that.z &&
-                    world.equals(that.world);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(world, x, y, z);
-        }
-    }
-
     /**
      * Adds a spawner to the manager and indexes it
      *
@@ -69,12 +45,13 @@ public class SpawnerManager {
      * @param spawner The spawner data object
      */
     public void addSpawner(String id, SpawnerData spawner) {
-        spawners.put(id, spawner);
-        locationIndex.put(new LocationKey(spawner.getSpawnerLocation()), spawner);
+        indexSpawner(id, spawner);
 
-        // Add to world index
-        String worldName = spawner.getSpawnerLocation().getWorld().getName();
-        worldIndex.computeIfAbsent(worldName, k -> new HashSet<>()).add(spawner);
+        // Let the range checker activate it if a player is already nearby
+        SpawnerRangeChecker rangeChecker = plugin.getRangeChecker();
+        if (rangeChecker != null) {
+            rangeChecker.trackSpawner(spawner);
+        }
 
         // Queue for saving
         spawnerFileHandler.queueSpawnerForSaving(id);
@@ -86,25 +63,63 @@ public class SpawnerManager {
      * @param id The spawner ID to remove
      */
     public void removeSpawner(String id) {
-        SpawnerData spawner = spawners.get(id);
-        if (spawner != null) {
-            Location loc = spawner.getSpawnerLocation();
-            // Run hologram removal on location thread
-            Scheduler.runLocationTask(loc, spawner::removeHologram);
-
-            locationIndex.remove(new LocationKey(spawner.getSpawnerLocation()));
-
-            // Remove from world index
-            String worldName = spawner.getSpawnerLocation().getWorld().getName();
-            Set<SpawnerData> worldSpawners = worldIndex.get(worldName);
-            if (worldSpawners != null) {
-                worldSpawners.remove(spawner);
-                if (worldSpawners.isEmpty()) {
-                    worldIndex.remove(worldName);
-                }
+        SpawnerData spawner;
+        synchronized (lockFor(id)) {
+            spawner = spawners.remove(id);
+            if (spawner == null) return;
+            unindexSpawner(spawner);
+        }
+
+        SpawnerRangeChecker rangeChecker = plugin.getRangeChecker();
+        if (rangeChecker != null) {
+            rangeChecker.untrackSpawner(spawner);
+        }
+
+        // Run hologram removal on location thread
+        Scheduler.runLocationTask(spawner.getSpawnerLocation(), spawner::removeHologram);
+    }
+
+    private Object lockFor(String id) {
+        return registryLocks[(id.hashCode() & 0x7FFFFFFF) % LOCK_STRIPES];
+    }
+
+    /**
+     * Adds a spawner to all indexes as one step for its ID, replacing any
+     * previous spawner registered under the same ID
+     */
+    private void indexSpawner(String id, SpawnerData spawner) {
+        synchronized (lockFor(id)) {
+            SpawnerData previous = spawners.put(id, spawner);
+            if (previous != null && previous != spawner) {
+                unindexSpawner(previous);
+            }
+
+            locationIndex.put(spawner);
+
+            World world = spawner.getSpawnerLocation().getWorld();
+            if (world != null) {
+                worldIndex.compute(world.getName(), (name, set) -> {
+                    if (set == null) set = ConcurrentHashMap.newKeySet();
+                    set.add(spawner);
+                    return set;
+                });
             }
+        }
+    }
 
-            spawners.remove(id);
+    /**
+     * Removes a spawner from the location and world indexes. Must be called while
+     * holding the lock stripe of the spawner's ID.
+     */
+    private void unindexSpawner(SpawnerData spawner) {
+        locationIndex.remove(spawner);
+
+        World world = spawner.getSpawnerLocation().getWorld();
+        if (world != null) {
+            worldIndex.computeIfPresent(world.getName(), (name, set) -> {
+                set.remove(spawner);
+                return set.isEmpty() ? null : set;
+            });
         }
     }
 
@@ -141,7 +156,44 @@ public class SpawnerManager {
      * @return The spawner at that location, or null if none exists
      */
     public SpawnerData getSpawnerByLocation(Location location) {
-        return locationIndex.get(new LocationKey(location));
+        return locationIndex.get(location);
+    }
+
+    /**
+     * Gets all spawners inside a chunk
+     *
+     * @param worldName The name of the world
+     * @param chunkX The chunk X coordinate
+     * @param chunkZ The chunk Z coordinate
+     * @return List of spawners in that chunk
+     */
+    public List<SpawnerData> getSpawnersInChunk(String worldName, int chunkX, int chunkZ) {
+        return locationIndex.getSpawnersInChunk(worldName, chunkX, chunkZ);
+    }
+
+    /**
+     * Gets all spawners inside a cube around a location
+     *
+     * @param center The center location
+     * @param radius The radius in blocks along each axis
+     * @return List of spawners within range
+     */
+    public List<SpawnerData> getSpawnersInRange(Location center, int radius) {
+        return locationIndex.getSpawnersInRange(center, radius);
+    }
+
+    /**
+     * Gets all spawners inside a cube around a block position
+     *
+     * @param worldName The name of the world
+     * @param x The center block X coordinate
+     * @param y The center block Y coordinate
+     * @param z The center block Z coordinate
+     * @param radius The radius in blocks along each axis
+     * @return List of spawners within range
+     */
+    public List<SpawnerData> getSpawnersInRange(String worldName, int x, int y, int z, int radius) {
+        return locationIndex.getSpawnersInRange(worldName, x, y, z, radius);
     }
 
     /**
@@ -155,7 +207,7 @@ public class SpawnerManager {
     }
 
     /**
-     * Gets all spawners currently managed
+     * Gets a snapshot of all spawners currently managed
      *
      * @return List of all spawner data objects
      */
@@ -178,18 +230,7 @@ public class SpawnerManager {
 
         // Add all loaded spawners to our indexes
         for (Map.Entry<String, SpawnerData> entry : loadedSpawners.entrySet()) {
-            String spawnerId = entry.getKey();
-            SpawnerData spawner = entry.getValue();
-
-            spawners.put(spawnerId, spawner);
-            locationIndex.put(new LocationKey(spawner.getSpawnerLocation()), spawner);
-
-            // Add to world index
-            World world = spawner.getSpawnerLocation().getWorld();
-            if (world != null) {
-                String worldName = world.getName();
-                worldIndex.computeIfAbsent(worldName, k -> new HashSet<>()).add(spawner);
-            }
+            indexSpawner(entry.getKey(), entry.getValue());
         }
 
         // Check for ghost spawners on startup if configured
@@ -380,6 +421,34 @@ public class SpawnerManager {
         }
     }
 
+    /**
+     * Loads the stored spawners of a world that was loaded after startup
+     *
+     * @param worldName The name of the loaded world
+     */
+    public void loadWorldSpawners(String worldName) {
+        Map<String, SpawnerData> loadedSpawners = spawnerFileHandler.loadWorldSpawners(worldName);
+        if (loadedSpawners.isEmpty()) return;
+
+        SpawnerRangeChecker rangeChecker = plugin.getRangeChecker();
+        boolean hologramsEnabled = plugin.getConfig().getBoolean("hologram.enabled", false);
+        for (Map.Entry<String, SpawnerData> entry : loadedSpawners.entrySet()) {
+            // Keep spawners that are already registered
+            if (spawners.containsKey(entry.getKey())) continue;
+
+            SpawnerData spawner = entry.getValue();
+            indexSpawner(entry.getKey(), spawner);
+            if (rangeChecker != null) {
+                // Start stopped like startup loads, so nearby players activate it through the range checker
+                spawner.setSpawnerStop(true);
+                rangeChecker.trackSpawner(spawner);
+            }
+            if (hologramsEnabled) {
+                Scheduler.runLocationTask(spawner.getSpawnerLocation(), spawner::reloadHologramData);
+            }
+        }
+    }
+
     public void reloadAllHolograms() {
         if (plugin.getConfig().getBoolean("hologram.enabled", false)) {
             for (SpawnerData spawner : spawners.values()) {
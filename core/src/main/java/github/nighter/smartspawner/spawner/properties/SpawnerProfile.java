@@ -0,0 +1,85 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import github.nighter.smartspawner.SmartSpawner;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.logging.Logger;
+
+/**
+ * Spawner settings compiled once from spawner_properties.default and shared by every spawner.
+ *
+ * Values that grow with the stack are derived from the base values on demand, so a spawner only
+ * keeps its stack size instead of its own copy of each scaled value. A new profile is compiled
+ * on reload and replaces the old one in a single reference swap.
+ *
+ * @param maxStoragePages Storage pages per spawner in the stack
+ * @param baseMaxStoredExp Experience capacity per spawner in the stack
+ * @param baseMinMobs Minimum mobs per spawn cycle per spawner in the stack
+ * @param baseMaxMobs Maximum mobs per spawn cycle per spawner in the stack
+ * @param spawnDelay Ticks between spawn cycles
+ * @param range Player activation range in blocks
+ * @param defaultMaxStackSize Maximum stack size given to new spawners
+ */
+public record SpawnerProfile(int maxStoragePages, int baseMaxStoredExp, int baseMinMobs, int baseMaxMobs,
+                             long spawnDelay, int range, int defaultMaxStackSize) {
+    private static final String PATH = "spawner_properties.default.";
+    private static final int SLOTS_PER_PAGE = 45;
+
+    /**
+     * Compiles the profile from the current config, replacing invalid values with defaults
+     *
+     * @param plugin The plugin instance
+     * @return The compiled profile
+     */
+    public static SpawnerProfile fromConfig(SmartSpawner plugin) {
+        FileConfiguration config = plugin.getConfig();
+        Logger logger = plugin.getLogger();
+
+        int maxStoragePages = config.getInt(PATH + "max_storage_pages", 1);
+        if (maxStoragePages <= 0) {
+            logger.warning("Invalid max_storage_pages value. Setting to default: 1");
+            maxStoragePages = 1;
+        }
+
+        long spawnDelay = plugin.getTimeFromConfig(PATH + "delay", "25s");
+        if (spawnDelay <= 0) {
+            logger.warning("Invalid delay value. Setting to default: 20");
+            spawnDelay = 400;
+        }
+
+        int range = config.getInt(PATH + "range");
+        if (range <= 0) {
+            logger.warning("Invalid range value. Setting to default: 16");
+            range = 16;
+        }
+
+        return new SpawnerProfile(maxStoragePages,
+                config.getInt(PATH + "max_stored_exp", 1000),
+                config.getInt(PATH + "min_mobs", 1),
+                config.getInt(PATH + "max_mobs", 4),
+                spawnDelay,
+                range,
+                config.getInt(PATH + "max_stack_size", 1000));
+    }
+
+    public int maxSpawnerLootSlots(int stackSize) {
+        int slots = SLOTS_PER_PAGE * maxStoragePages * stackSize;
+        return slots < 0 ? SLOTS_PER_PAGE : slots;
+    }
+
+    public int maxStoredExp(int stackSize) {
+        int exp = baseMaxStoredExp * stackSize;
+        return exp <= 0 ? baseMaxStoredExp : exp;
+    }
+
+    public int minMobs(int stackSize) {
+        int mobs = baseMinMobs * stackSize;
+        return mobs <= 0 ? baseMinMobs : mobs;
+    }
+
+    public int maxMobs(int stackSize) {
+        int minMobs = minMobs(stackSize);
+        int mobs = baseMaxMobs * stackSize;
+        return mobs <= 0 || mobs <= minMobs ? minMobs + stackSize : mobs;
+    }
+}
\ No newline at end of file
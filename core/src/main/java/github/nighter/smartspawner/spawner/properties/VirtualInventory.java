@@ -1,104 +1,203 @@
 package github.nighter.smartspawner.spawner.properties;
 
+import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
 
 public class VirtualInventory {
-    private final Map<ItemSignature, Long> consolidatedItems;
-    private final int maxSlots;
+    // Stored amount per signature id, also the lock for every change to the contents
+    private final ItemAmountTable consolidatedItems;
+    private volatile int maxSlots;
     private final Map<Integer, ItemStack> displayInventoryCache;
     private boolean displayCacheDirty;
-    private int usedSlotsCache;
-    private long totalItemsCache;
-    private boolean metricsCacheDirty;
-    // Cache sorted entries to avoid resorting when display isn't changing
-    private List<Map.Entry<ItemSignature, Long>> sortedEntriesCache;
-
-    // Simple item comparator that only sorts by material name
-    private static final Comparator<Map.Entry<ItemSignature, Long>> ITEM_COMPARATOR =
-            Comparator.comparing(e -> e.getKey().getTemplateRef().getType().name());
-
-    // Add an LRU cache for expensive item operations
-    private static final int ITEM_CACHE_SIZE = 128;
-    private static final Map<ItemStack, ItemSignature> signatureCache =
-            Collections.synchronizedMap(new LinkedHashMap<ItemStack, ItemSignature>(ITEM_CACHE_SIZE, 0.75f, true) {
-                @Override
-                protected boolean removeEldestEntry(Map.Entry<ItemStack, ItemSignature> eldest) {
-                    return size() > ITEM_CACHE_SIZE;
-                }
-            });
+    // Exact metrics, adjusted on every change instead of recomputed from the entries
+    private final AtomicLong usedSlotCount = new AtomicLong();
+    private final AtomicLong totalItemCount = new AtomicLong();
+    // Sorted snapshot of the stored items, valid while its version matches contentVersion
+    private volatile DisplayLayout displayLayout;
+    // Bumped on every content or order change, only ever written under the consolidatedItems lock
+    private volatile int contentVersion;
+    private volatile InventorySortMode sortMode = defaultSortMode;
+    // One ordered index per sort mode that has been displayed, kept up to date on every change
+    // Guarded by the consolidatedItems lock
+    private final Map<InventorySortMode, SortedItemIndex> sortIndexes = new EnumMap<>(InventorySortMode.class);
+    // Storage pages rendered for the current content version, shared by every viewer of a page
+    private final Map<Integer, RenderedPage> renderedPages = new ConcurrentHashMap<>();
+
+    private record RenderedPage(int version, int maxSlots, int pageSize, List<ItemStack> slots) {}
+
+    // Shared sorting settings, applied from the config on startup and reload
+    private static volatile InventorySortMode defaultSortMode = InventorySortMode.MATERIAL;
+    private static volatile ToDoubleFunction<Material> priceLookup = material -> 0;
+    private static volatile int priceGeneration;
+
+    // Bounded cache for expensive item operations, replaced when the configured size changes
+    private static final int DEFAULT_SIGNATURE_CACHE_SIZE = 1024;
+    private static volatile SignatureCache signatureCache = new SignatureCache(DEFAULT_SIGNATURE_CACHE_SIZE);
 
     public VirtualInventory(int maxSlots) {
         this.maxSlots = maxSlots;
-        this.consolidatedItems = new ConcurrentHashMap<>();
+        this.consolidatedItems = new ItemAmountTable();
         this.displayInventoryCache = new HashMap<>(maxSlots); // Pre-size the map
         this.displayCacheDirty = true;
-        this.metricsCacheDirty = true;
-        this.usedSlotsCache = 0;
-        this.totalItemsCache = 0;
-        this.sortedEntriesCache = null;
     }
 
+    /**
+     * Sets the sort mode for new inventories and the prices used by the sell value order
+     *
+     * @param sortMode The sort mode new inventories start with
+     * @param unitPrices Lookup of the sell price of one item of a material
+     */
+    public static void configureSorting(InventorySortMode sortMode, ToDoubleFunction<Material> unitPrices) {
+        defaultSortMode = sortMode;
+        priceLookup = unitPrices;
+        // Sell value indexes built with the old prices are rebuilt on next use
+        priceGeneration++;
+    }
+
+    static double getUnitPrice(ItemSignature sig) {
+        return priceLookup.applyAsDouble(sig.getTemplateRef().getType());
+    }
+
+    public InventorySortMode getSortMode() {
+        return sortMode;
+    }
+
+    public void setSortMode(InventorySortMode sortMode) {
+        synchronized (consolidatedItems) {
+            if (this.sortMode == sortMode) return;
+            this.sortMode = sortMode;
+            markChanged();
+        }
+    }
+
+    /**
+     * Items in display order with the cumulative number of slots they fill,
+     * so any slot can be located with a binary search instead of laying out every stack.
+     * The version is the content version the items were copied at.
+     */
+    private record DisplayLayout(ItemSignature[] signatures, long[] amounts, long[] slotEnds, int version) {
+    }
+
+    /**
+     * A distinct stored item. Signatures are interned process-wide, so every inventory holding
+     * the same item shares one instance and one template, and equality is an identity check.
+     */
     public static class ItemSignature {
+        // Keyed by serialized item content, several forms of one item may point to the same signature;
+        // only grows with the number of distinct loot items
+        private static final Map<ItemSignature, ItemSignature> INTERNED = new ConcurrentHashMap<>();
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+        private static volatile ItemSignature[] byId = new ItemSignature[64];
+        // Position of each material, by ordinal, in alphabetical order of the names
+        private static final int[] MATERIAL_RANKS = buildMaterialRanks();
+
+        // Shared by every holder of this signature, must never be modified
         private final ItemStack template;
+        // Serialized form of the single-item template
+        private final byte[] canonicalKey;
         private final int hashCode;
         // Cache material name to avoid repeatedly accessing it
         private final String materialName;
+        private final int materialRank;
+        // Compact id of an interned signature, -1 for a lookup key
+        private final int id;
+
+        private ItemSignature(ItemStack template, byte[] canonicalKey, int id) {
+            this.template = template;
+            this.canonicalKey = canonicalKey;
+            this.hashCode = Arrays.hashCode(canonicalKey);
+            this.materialName = template.getType().name();
+            this.materialRank = MATERIAL_RANKS[template.getType().ordinal()];
+            this.id = id;
+        }
+
+        static ItemSignature intern(ItemStack item) {
+            ItemStack template = item.clone();
+            template.setAmount(1);
+            ItemSignature key = new ItemSignature(template, template.serializeAsBytes(), -1);
 
-        public ItemSignature(ItemStack item) {
-            this.template = item.clone();
-            this.template.setAmount(1);
-            this.materialName = item.getType().name();
-            this.hashCode = calculateHashCode();
-        }
-
-        // Replace the current calculateHashCode() method with:
-        private int calculateHashCode() {
-            // Use a faster hash algorithm and cache more item properties
-            int result = 31 * template.getType().ordinal(); // Using ordinal() instead of name() hashing
-            result = 31 * result + (int)template.getDurability();
-
-            // Only access ItemMeta when needed
-            if (template.hasItemMeta()) {
-                ItemMeta meta = template.getItemMeta();
-                // Extract only the essential meta properties that determine similarity
-                result = 31 * result + (meta.hasDisplayName() ? meta.getDisplayName().hashCode() : 0);
-                result = 31 * result + (meta.hasLore() ? meta.getLore().hashCode() : 0);
-                result = 31 * result + (meta.hasEnchants() ? meta.getEnchants().hashCode() : 0);
+            ItemSignature interned = INTERNED.get(key);
+            if (interned != null) {
+                return interned;
             }
-            return result;
+            return resolve(key);
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof ItemSignature)) return false;
-            ItemSignature that = (ItemSignature) o;
-
-            // First compare cheap properties
-            if (template.getType() != that.template.getType() ||
-                    template.getDurability() != that.template.getDurability()) {
-                return false;
+        // Equal items built in different ways, e.g. with meta applied in another order or read back from
+        // a real inventory, may serialize to different bytes. Each new form is checked once with isSimilar
+        // and shares the signature of the item it matches, so one item never splits into two signatures.
+        private static synchronized ItemSignature resolve(ItemSignature key) {
+            ItemSignature interned = INTERNED.get(key);
+            if (interned == null) {
+                interned = findSimilar(key.template);
+                if (interned == null) {
+                    interned = register(new ItemSignature(key.template, key.canonicalKey, NEXT_ID.getAndIncrement()));
+                }
+                INTERNED.put(key, interned);
             }
+            return interned;
+        }
 
-            // Only check ItemMeta if types match
-            boolean thisHasMeta = template.hasItemMeta();
-            boolean thatHasMeta = that.template.hasItemMeta();
+        private static ItemSignature findSimilar(ItemStack template) {
+            ItemSignature[] table = byId;
+            int count = Math.min(NEXT_ID.get(), table.length);
+            for (int i = 0; i < count; i++) {
+                ItemSignature candidate = table[i];
+                if (candidate != null && candidate.template.getType() == template.getType()
+                        && candidate.template.isSimilar(template)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
 
-            if (thisHasMeta != thatHasMeta) {
-                return false;
+        private static synchronized ItemSignature register(ItemSignature signature) {
+            ItemSignature[] table = byId;
+            if (signature.id >= table.length) {
+                table = Arrays.copyOf(table, Math.max(table.length * 2, signature.id + 1));
             }
+            table[signature.id] = signature;
+            byId = table;
+            return signature;
+        }
 
-            // If both have no meta, they're similar enough
-            if (!thisHasMeta) {
-                return true;
+        /**
+         * Gets an interned signature by its id
+         *
+         * @param id The signature id
+         * @return The signature, or null if no signature has that id
+         */
+        public static ItemSignature byId(int id) {
+            ItemSignature[] table = byId;
+            return id >= 0 && id < table.length ? table[id] : null;
+        }
+
+        private static int[] buildMaterialRanks() {
+            Material[] materials = Material.values().clone();
+            Arrays.sort(materials, Comparator.comparing(Material::name));
+            int[] ranks = new int[materials.length];
+            for (int i = 0; i < materials.length; i++) {
+                ranks[materials[i].ordinal()] = i;
             }
+            return ranks;
+        }
 
-            // For complex items, fall back to isSimilar but only as a last resort
-            return template.isSimilar(that.template);
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ItemSignature)) return false;
+            ItemSignature that = (ItemSignature) o;
+
+            // Interned signatures are unique per item, content only needs comparing for lookup keys
+            if (id >= 0 && that.id >= 0) return false;
+
+            return hashCode == that.hashCode && Arrays.equals(canonicalKey, that.canonicalKey);
         }
 
         @Override
@@ -110,7 +209,7 @@ public class VirtualInventory {
             return template.clone();
         }
 
-        // Non-cloning method for internal use
+        // Non-cloning method for internal use, the template is shared and must not be modified
         public ItemStack getTemplateRef() {
             return template;
         }
@@ -119,19 +218,40 @@ public class VirtualInventory {
         public String getMaterialName() {
             return materialName;
         }
+
+        public int getMaterialRank() {
+            return materialRank;
+        }
+
+        public int getId() {
+            return id;
+        }
     }
 
     public static ItemSignature getSignature(ItemStack item) {
-        // First try to get from cache
-        ItemSignature cachedSig = signatureCache.get(item);
-        if (cachedSig != null) {
-            return cachedSig;
+        // Resolve the shared signature on a cache miss
+        return signatureCache.get(item, ItemSignature::intern);
+    }
+
+    /**
+     * Sets the number of items kept in the signature cache, clearing it if the size changes
+     *
+     * @param maximumSize The maximum number of cached items
+     */
+    public static void configureSignatureCache(int maximumSize) {
+        int size = maximumSize > 0 ? maximumSize : DEFAULT_SIGNATURE_CACHE_SIZE;
+        if (SignatureCache.capacityFor(size) != signatureCache.capacity()) {
+            signatureCache = new SignatureCache(size);
         }
+    }
 
-        // Create new signature and cache it
-        ItemSignature newSig = new ItemSignature(item);
-        signatureCache.put(item.clone(), newSig);
-        return newSig;
+    /**
+     * Gets the hit, miss and eviction counts of the signature cache
+     *
+     * @return The cache statistics
+     */
+    public static SignatureCache.Stats getSignatureCacheStats() {
+        return signatureCache.stats();
     }
 
     // Add items in bulk with minimal operations
@@ -150,14 +270,32 @@ public class VirtualInventory {
 
         // Apply all changes in one operation
         if (!itemBatch.isEmpty()) {
-            for (Map.Entry<ItemSignature, Long> entry : itemBatch.entrySet()) {
-                consolidatedItems.merge(entry.getKey(), entry.getValue(), Long::sum);
+            synchronized (consolidatedItems) {
+                for (Map.Entry<ItemSignature, Long> entry : itemBatch.entrySet()) {
+                    adjustAmount(entry.getKey(), entry.getValue());
+                }
+                markChanged();
+            }
+        }
+    }
+
+    // Add already consolidated amounts, skipping the stack split and re-merge
+    public void addItemCounts(Map<ItemSignature, Long> itemCounts) {
+        synchronized (consolidatedItems) {
+            boolean updated = false;
+            for (Map.Entry<ItemSignature, Long> entry : itemCounts.entrySet()) {
+                long amount = entry.getValue();
+                if (amount <= 0) continue;
+                adjustAmount(entry.getKey(), amount);
+                updated = true;
+            }
+
+            if (updated) {
+                markChanged();
             }
-            displayCacheDirty = true;
-            metricsCacheDirty = true;
-            sortedEntriesCache = null;
         }
     }
+
     // Remove items in bulk with minimal operations
     public boolean removeItems(List<ItemStack> items) {
         if (items.isEmpty()) return true;
@@ -167,41 +305,53 @@ public class VirtualInventory {
         // Calculate total amounts to remove in a single pass
         for (ItemStack item : items) {
             if (item == null || item.getAmount() <= 0) continue;
-            ItemSignature sig = new ItemSignature(item);
+            ItemSignature sig = getSignature(item);
             toRemove.merge(sig, (long) item.getAmount(), Long::sum);
         }
 
         if (toRemove.isEmpty()) return true;
 
-        // Verify we have enough of each item
-        for (Map.Entry<ItemSignature, Long> entry : toRemove.entrySet()) {
-            Long currentAmount = consolidatedItems.getOrDefault(entry.getKey(), 0L);
-            if (currentAmount < entry.getValue()) {
-                return false;
+        // Check and remove in one step so a concurrent removal cannot take the same items
+        synchronized (consolidatedItems) {
+            // Verify we have enough of each item
+            for (Map.Entry<ItemSignature, Long> entry : toRemove.entrySet()) {
+                if (consolidatedItems.get(entry.getKey().getId()) < entry.getValue()) {
+                    return false;
+                }
             }
-        }
 
-        // Perform removals all at once
-        boolean updated = false;
-        for (Map.Entry<ItemSignature, Long> entry : toRemove.entrySet()) {
-            ItemSignature sig = entry.getKey();
-            long amountToRemove = entry.getValue();
-
-            consolidatedItems.computeIfPresent(sig, (key, current) -> {
-                long newAmount = current - amountToRemove;
-                return newAmount <= 0 ? null : newAmount;
-            });
-
-            updated = true;
+            // Perform removals all at once
+            for (Map.Entry<ItemSignature, Long> entry : toRemove.entrySet()) {
+                adjustAmount(entry.getKey(), -entry.getValue());
+            }
+            markChanged();
         }
 
-        if (updated) {
-            displayCacheDirty = true;
-            metricsCacheDirty = true;
-            sortedEntriesCache = null; // Invalidate sorted entries cache
+        return true;
+    }
+
+    /**
+     * Removes up to the given amount of one item in a single step
+     *
+     * @param sig The item signature
+     * @param maxAmount The most to remove
+     * @return The amount actually removed, 0 if the item is not stored
+     */
+    public long takeItems(ItemSignature sig, long maxAmount) {
+        long taken;
+        synchronized (consolidatedItems) {
+            taken = Math.min(consolidatedItems.get(sig.getId()), maxAmount);
+            if (taken <= 0) return 0;
+            adjustAmount(sig, -taken);
+            markChanged();
         }
+        return taken;
+    }
 
-        return true;
+    // Must be called while holding the consolidatedItems lock, in the same step as the change
+    private void markChanged() {
+        displayCacheDirty = true;
+        contentVersion++;
     }
 
     // Optimized getDisplayInventory method
@@ -215,98 +365,260 @@ public class VirtualInventory {
         // Clear the cache for a fresh rebuild but reuse the existing map
         displayInventoryCache.clear();
 
-        if (consolidatedItems.isEmpty()) {
+        if (isEmpty()) {
             displayCacheDirty = false;
-            usedSlotsCache = 0;
             return Collections.emptyMap();
         }
 
-        // Get and sort the items - only use cached sort result if available
-        if (sortedEntriesCache == null) {
-            sortedEntriesCache = new ArrayList<>(consolidatedItems.entrySet());
-            // Use optimized comparator based on cached material name
-            sortedEntriesCache.sort(Comparator.comparing(e -> e.getKey().getMaterialName()));
+        fillDisplayRange(getDisplayLayout(), maxSlots, 0, maxSlots, 0, displayInventoryCache);
+
+        // Update cache state
+        displayCacheDirty = false;
+
+        // Return unmodifiable map to prevent external changes
+        return Collections.unmodifiableMap(displayInventoryCache);
+    }
+
+    /**
+     * Gets the items shown on one storage page, creating only the stacks on that page
+     *
+     * @param page The page number, starting at 1
+     * @param pageSize The number of slots per page
+     * @return Map of slot within the page to item
+     */
+    public Map<Integer, ItemStack> getDisplayPage(int page, int pageSize) {
+        int fromSlot = (page - 1) * pageSize;
+        return getDisplayRange(fromSlot, fromSlot + pageSize, fromSlot);
+    }
+
+    /**
+     * Gets one storage page as a read-only list of page slots, null for empty slots.
+     * A page is built once per content version and the same list is handed to every viewer,
+     * so the returned stacks must not be modified.
+     *
+     * @param page The page number, starting at 1
+     * @param pageSize The number of slots per page
+     * @return The items of the page, indexed by slot within the page
+     */
+    public List<ItemStack> getRenderedPage(int page, int pageSize) {
+        // The page is built from one layout snapshot and tagged with that snapshot's version
+        DisplayLayout layout = getDisplayLayout();
+        int version = layout.version();
+        int slotLimit = maxSlots;
+        RenderedPage cached = renderedPages.get(page);
+        if (cached != null && cached.version() == version && cached.maxSlots() == slotLimit
+                && cached.pageSize() == pageSize) {
+            return cached.slots();
         }
 
-        // Process items directly to the display inventory
-        int currentSlot = 0;
+        int fromSlot = (page - 1) * pageSize;
+        Map<Integer, ItemStack> pageItems = new HashMap<>();
+        fillDisplayRange(layout, slotLimit, fromSlot, fromSlot + pageSize, fromSlot, pageItems);
+        ItemStack[] slots = new ItemStack[pageSize];
+        pageItems.forEach((slot, item) -> slots[slot] = item);
+        List<ItemStack> rendered = Collections.unmodifiableList(Arrays.asList(slots));
 
-        for (Map.Entry<ItemSignature, Long> entry : sortedEntriesCache) {
-            if (currentSlot >= maxSlots) break;
+        renderedPages.values().removeIf(entry -> entry.version() != version);
+        renderedPages.put(page, new RenderedPage(version, slotLimit, pageSize, rendered));
+        return rendered;
+    }
 
-            ItemSignature sig = entry.getKey();
-            long totalAmount = entry.getValue();
-            ItemStack templateItem = sig.getTemplateRef();
-            int maxStackSize = templateItem.getMaxStackSize();
+    /**
+     * Gets the items in a range of display slots, creating only the stacks in that range
+     *
+     * @param fromSlot The first display slot, inclusive
+     * @param toSlot The last display slot, exclusive
+     * @return Map of display slot to item
+     */
+    public Map<Integer, ItemStack> getDisplayRange(int fromSlot, int toSlot) {
+        return getDisplayRange(fromSlot, toSlot, 0);
+    }
 
-            // Create as many stacks as needed for this item type
-            while (totalAmount > 0 && currentSlot < maxSlots) {
-                int stackSize = (int) Math.min(totalAmount, maxStackSize);
+    private Map<Integer, ItemStack> getDisplayRange(int fromSlot, int toSlot, int keyOffset) {
+        Map<Integer, ItemStack> items = new HashMap<>();
+        if (!isEmpty()) {
+            fillDisplayRange(getDisplayLayout(), maxSlots, fromSlot, toSlot, keyOffset, items);
+        }
+        return items;
+    }
 
-                // Create the display item only once per slot
-                ItemStack displayItem = templateItem.clone();
-                displayItem.setAmount(stackSize);
+    private void fillDisplayRange(DisplayLayout layout, int slotLimit, int fromSlot, int toSlot, int keyOffset,
+                                  Map<Integer, ItemStack> target) {
+        int endSlot = Math.min(toSlot, slotLimit);
+        if (fromSlot < 0 || fromSlot >= endSlot) return;
+
+        long[] slotEnds = layout.slotEnds();
+
+        // First item whose slots reach past fromSlot
+        int low = 0;
+        int high = slotEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (slotEnds[mid] > fromSlot) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
 
-                // Store in cache
-                displayInventoryCache.put(currentSlot, displayItem);
+        int slot = fromSlot;
+        for (int i = low; i < slotEnds.length && slot < endSlot; i++) {
+            ItemStack templateItem = layout.signatures()[i].getTemplateRef();
+            int maxStackSize = templateItem.getMaxStackSize();
+            long firstSlot = i == 0 ? 0 : slotEnds[i - 1];
+            long totalAmount = layout.amounts()[i];
 
-                totalAmount -= stackSize;
-                currentSlot++;
+            while (slot < endSlot && slot < slotEnds[i]) {
+                // Every stack is full except the last one of an item
+                long remaining = totalAmount - (slot - firstSlot) * maxStackSize;
+                ItemStack displayItem = templateItem.clone();
+                displayItem.setAmount((int) Math.min(remaining, maxStackSize));
+                target.put(slot - keyOffset, displayItem);
+                slot++;
             }
         }
+    }
 
-        // Update cache state
-        displayCacheDirty = false;
-        usedSlotsCache = displayInventoryCache.size();
+    private DisplayLayout getDisplayLayout() {
+        DisplayLayout layout = displayLayout;
+        if (layout != null && layout.version() == contentVersion) {
+            return layout;
+        }
 
-        // Return unmodifiable map to prevent external changes
-        return Collections.unmodifiableMap(displayInventoryCache);
+        // Copy the already ordered index so amounts and slot counts stay consistent with each other,
+        // reading the version in the same step so the layout is tagged with exactly what it holds
+        ItemSignature[] signatures;
+        long[] amounts;
+        int version;
+        synchronized (consolidatedItems) {
+            version = contentVersion;
+            SortedItemIndex index = getSortIndex(sortMode);
+            signatures = new ItemSignature[index.size()];
+            amounts = new long[index.size()];
+            index.copyTo(signatures, amounts);
+        }
+
+        int size = signatures.length;
+        long[] slotEnds = new long[size];
+        long slots = 0;
+        for (int i = 0; i < size; i++) {
+            int maxStackSize = signatures[i].getTemplateRef().getMaxStackSize();
+            slots += (amounts[i] + maxStackSize - 1) / maxStackSize;
+            slotEnds[i] = slots;
+        }
+
+        layout = new DisplayLayout(signatures, amounts, slotEnds, version);
+        // A layout tagged with an older version is simply rebuilt by the next reader
+        displayLayout = layout;
+        return layout;
     }
 
     public int getMaxSlots() {
         return maxSlots;
     }
 
+    /**
+     * Changes the number of slots in place, keeping every stored item.
+     * Items beyond a smaller capacity stay stored but are not displayed until space frees up.
+     *
+     * @param newMaxSlots The new number of slots
+     */
+    public void resize(int newMaxSlots) {
+        if (newMaxSlots == maxSlots) return;
+        this.maxSlots = newMaxSlots;
+        // Only the visible range depends on the capacity, the sorted layout stays valid
+        // and rendered pages are checked against the capacity they were built for
+        displayCacheDirty = true;
+    }
+
     public long getTotalItems() {
-        if (metricsCacheDirty) {
-            updateMetricsCache();
-        }
-        return totalItemsCache;
+        return totalItemCount.get();
     }
 
     public Map<ItemSignature, Long> getConsolidatedItems() {
-        return new HashMap<>(consolidatedItems);
+        synchronized (consolidatedItems) {
+            Map<ItemSignature, Long> items = new HashMap<>(consolidatedItems.size() * 2);
+            consolidatedItems.forEach((id, amount) -> items.put(ItemSignature.byId(id), amount));
+            return items;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ItemVisitor {
+        /**
+         * @param sig The item signature
+         * @param amount The stored amount, always positive
+         * @return false to stop the iteration
+         */
+        boolean visit(ItemSignature sig, long amount);
+    }
+
+    /**
+     * Visits the stored items in place under the inventory lock, without copying the contents.
+     * The visitor must not modify this inventory; collect what to change and apply it afterwards.
+     *
+     * @param visitor Called for each stored item until it returns false
+     */
+    public void forEachItem(ItemVisitor visitor) {
+        synchronized (consolidatedItems) {
+            consolidatedItems.forEachWhile((id, amount) -> visitor.visit(ItemSignature.byId(id), amount));
+        }
+    }
+
+    /**
+     * Gets the stored amount of one item without copying the contents
+     *
+     * @param sig The item signature
+     * @return The stored amount, 0 if the item is not stored
+     */
+    public long getAmount(ItemSignature sig) {
+        synchronized (consolidatedItems) {
+            return consolidatedItems.get(sig.getId());
+        }
+    }
+
+    public boolean isEmpty() {
+        synchronized (consolidatedItems) {
+            return consolidatedItems.size() == 0;
+        }
     }
 
     public int getUsedSlots() {
-        // If cache is dirty but we haven't regenerated the display inventory yet,
-        // calculate a quick estimate instead of rebuilding the whole display
-        if (displayCacheDirty) {
-            if (consolidatedItems.isEmpty()) {
-                return 0;
-            }
+        // Capped like the display, which never shows more than maxSlots stacks
+        return (int) Math.min(usedSlotCount.get(), maxSlots);
+    }
 
-            // Quick estimate - not perfectly accurate but avoids full rebuilds
-            int estimatedSlots = 0;
-            for (Map.Entry<ItemSignature, Long> entry : consolidatedItems.entrySet()) {
-                long amount = entry.getValue();
-                int maxStackSize = entry.getKey().getTemplateRef().getMaxStackSize();
-                estimatedSlots += (int) Math.ceil((double) amount / maxStackSize);
-                if (estimatedSlots >= maxSlots) {
-                    return maxSlots; // Cap at max slots
-                }
+    // Applies an amount change to one item and keeps the slot and item counters in step with it
+    private void adjustAmount(ItemSignature sig, long delta) {
+        int maxStackSize = sig.getTemplateRef().getMaxStackSize();
+        synchronized (consolidatedItems) {
+            long oldAmount = consolidatedItems.get(sig.getId());
+            long newAmount = Math.max(0, oldAmount + delta);
+            consolidatedItems.put(sig.getId(), newAmount);
+            usedSlotCount.addAndGet(slotsFor(newAmount, maxStackSize) - slotsFor(oldAmount, maxStackSize));
+            totalItemCount.addAndGet(newAmount - oldAmount);
+            for (SortedItemIndex index : sortIndexes.values()) {
+                index.update(sig, newAmount);
             }
-            return estimatedSlots;
+        }
+    }
+
+    // Must be called while holding the consolidatedItems lock
+    private SortedItemIndex getSortIndex(InventorySortMode mode) {
+        SortedItemIndex index = sortIndexes.get(mode);
+        if (index != null && (mode != InventorySortMode.SELL_VALUE || index.getPriceGeneration() == priceGeneration)) {
+            return index;
         }
 
-        return usedSlotsCache;
+        // Built once per mode, then maintained incrementally by adjustAmount
+        SortedItemIndex rebuilt = new SortedItemIndex(mode, priceGeneration);
+        consolidatedItems.forEach((id, amount) -> rebuilt.update(ItemSignature.byId(id), amount));
+        sortIndexes.put(mode, rebuilt);
+        return rebuilt;
     }
 
-    private void updateMetricsCache() {
-        totalItemsCache = consolidatedItems.values().stream()
-                .mapToLong(Long::longValue)
-                .sum();
-        metricsCacheDirty = false;
+    private static long slotsFor(long amount, int maxStackSize) {
+        return (amount + maxStackSize - 1) / maxStackSize;
     }
 
     public boolean isDirty() {
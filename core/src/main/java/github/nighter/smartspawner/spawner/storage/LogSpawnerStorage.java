@@ -0,0 +1,418 @@
+package github.nighter.smartspawner.spawner.storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Stores spawners in an append-only binary log.
+ *
+ * Every save appends one record per changed or deleted spawner, so the cost of a save follows
+ * the number of dirty spawners instead of the total. Each record is framed as
+ * {@code [int length][payload][int crc32]}; replay stops at the first torn or corrupt record
+ * and cuts the file back to the last good one. Only the offset of the latest record per spawner
+ * is kept in memory, and the log is compacted into a fresh file once most of it is stale.
+ */
+public class LogSpawnerStorage implements SpawnerStorage {
+    private static final int MAGIC = 0x53534C47; // "SSLG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int FRAME_OVERHEAD = 8;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    // Compact once the log holds at least this many records and most of them are stale
+    private static final int COMPACTION_MIN_RECORDS = 4096;
+
+    private final File logFile;
+    private final int currentVersion;
+    private final Logger logger;
+    // Spawner ID -> file offset of its latest PUT record
+    private final Map<String, Long> offsets = new HashMap<>();
+    private FileChannel channel;
+    private long appendPosition;
+    // All records in the file, live and stale
+    private int recordCount;
+
+    public LogSpawnerStorage(File logFile, int currentVersion, Logger logger) throws IOException {
+        this.logFile = logFile;
+        this.currentVersion = currentVersion;
+        this.logger = logger;
+        open();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(logFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() < HEADER_SIZE) {
+            // New file, or one that never got past its header
+            channel.truncate(0);
+            writeHeader(channel);
+            channel.force(true);
+            appendPosition = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = readFully(HEADER_SIZE, 0);
+        if (header.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException(logFile.getName() + " is not a spawner data log");
+        }
+        int formatVersion = header.getInt();
+        if (formatVersion > FORMAT_VERSION) {
+            channel.close();
+            throw new IOException(logFile.getName() + " uses unsupported log format " + formatVersion);
+        }
+
+        replayIndex();
+    }
+
+    /**
+     * Scans the log once to rebuild the offset index and drop any damaged tail
+     */
+    private void replayIndex() throws IOException {
+        long fileSize = channel.size();
+        long offset = HEADER_SIZE;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(logFile.toPath()), 1 << 16))) {
+            in.skipNBytes(HEADER_SIZE);
+
+            while (offset + FRAME_OVERHEAD <= fileSize) {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE || offset + FRAME_OVERHEAD + length > fileSize) {
+                    break;
+                }
+
+                byte[] payload = in.readNBytes(length);
+                int checksum = in.readInt();
+                if (checksum != checksum(payload)) {
+                    break;
+                }
+
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                byte op = record.readByte();
+                String id = readString(record);
+                if (op == OP_PUT) {
+                    offsets.put(id, offset);
+                } else if (op == OP_DELETE) {
+                    offsets.remove(id);
+                }
+
+                offset += FRAME_OVERHEAD + length;
+                recordCount++;
+            }
+        }
+
+        if (offset < fileSize) {
+            // Keep the damaged file around before cutting it back to the last good record
+            Path backup = logFile.toPath().resolveSibling(logFile.getName() + ".corrupt-" + System.currentTimeMillis());
+            Files.copy(logFile.toPath(), backup, StandardCopyOption.REPLACE_EXISTING);
+            logger.warning("Discarding " + (fileSize - offset) + " bytes of incomplete or corrupt data at the end of "
+                    + logFile.getName() + ". A copy was saved as " + backup.getFileName());
+            channel.truncate(offset);
+            channel.force(true);
+        }
+
+        appendPosition = offset;
+    }
+
+    @Override
+    public synchronized Map<String, SpawnerRecord> loadAll() {
+        Map<String, SpawnerRecord> records = new LinkedHashMap<>(offsets.size() * 2);
+
+        // Read in file order so the reads stay mostly sequential
+        List<Map.Entry<String, Long>> live = new ArrayList<>(offsets.entrySet());
+        live.sort(Map.Entry.comparingByValue());
+
+        for (Map.Entry<String, Long> entry : live) {
+            try {
+                SpawnerRecord record = readRecord(entry.getValue());
+                records.put(record.id(), record);
+            } catch (IOException e) {
+                logger.severe("Error reading spawner " + entry.getKey() + " from " + logFile.getName());
+                e.printStackTrace();
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public synchronized void write(Collection<SpawnerRecord> records) throws IOException {
+        if (records.isEmpty()) return;
+
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        Map<String, Long> written = new HashMap<>(records.size() * 2);
+        for (SpawnerRecord record : records) {
+            written.put(record.id(), appendPosition + batch.size());
+            writeFrame(batch, encodePut(record));
+        }
+
+        append(batch.toByteArray());
+        offsets.putAll(written);
+        recordCount += records.size();
+        maybeCompact();
+    }
+
+    @Override
+    public synchronized void delete(Collection<String> spawnerIds) throws IOException {
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        List<String> removed = new ArrayList<>();
+        for (String id : spawnerIds) {
+            if (!offsets.containsKey(id)) continue;
+            writeFrame(batch, encodeDelete(id));
+            removed.add(id);
+        }
+
+        if (removed.isEmpty()) return;
+
+        append(batch.toByteArray());
+        removed.forEach(offsets::remove);
+        recordCount += removed.size();
+        maybeCompact();
+    }
+
+    @Override
+    public synchronized void replaceAll(Collection<SpawnerRecord> records) throws IOException {
+        Path temp = tempPath();
+        Map<String, Long> newOffsets = new HashMap<>(records.size() * 2);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+
+            long position = HEADER_SIZE;
+            ByteArrayOutputStream frame = new ByteArrayOutputStream();
+            for (SpawnerRecord record : records) {
+                frame.reset();
+                writeFrame(frame, encodePut(record));
+                newOffsets.put(record.id(), position);
+                frame.writeTo(out);
+                position += frame.size();
+            }
+        }
+
+        swapIn(temp, newOffsets);
+    }
+
+    private void maybeCompact() throws IOException {
+        if (recordCount < COMPACTION_MIN_RECORDS || recordCount < offsets.size() * 2) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int before = recordCount;
+        compact();
+        logger.info("Compacted " + logFile.getName() + " from " + before + " to " + recordCount
+                + " records in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Copies the latest record of every live spawner into a fresh log and swaps it in
+     */
+    private void compact() throws IOException {
+        Path temp = tempPath();
+        Map<String, Long> newOffsets = new HashMap<>(offsets.size() * 2);
+
+        List<Map.Entry<String, Long>> live = new ArrayList<>(offsets.entrySet());
+        live.sort(Map.Entry.comparingByValue());
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(out);
+            long position = HEADER_SIZE;
+
+            for (Map.Entry<String, Long> entry : live) {
+                long offset = entry.getValue();
+                long size = FRAME_OVERHEAD + readFully(4, offset).getInt();
+
+                // Frames are copied verbatim, checksum included
+                long copied = 0;
+                while (copied < size) {
+                    copied += channel.transferTo(offset + copied, size - copied, out);
+                }
+
+                newOffsets.put(entry.getKey(), position);
+                position += size;
+            }
+        }
+
+        swapIn(temp, newOffsets);
+    }
+
+    private void swapIn(Path temp, Map<String, Long> newOffsets) throws IOException {
+        try (FileChannel written = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            written.force(true);
+        }
+
+        channel.close();
+        try {
+            try {
+                Files.move(temp, logFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            offsets.clear();
+            offsets.putAll(newOffsets);
+            recordCount = newOffsets.size();
+        } finally {
+            // Reopen whichever file is now in place; on failure the old log and index still match
+            channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            appendPosition = channel.size();
+        }
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = appendPosition;
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Drop the partial batch so the next append starts on a record boundary
+            channel.truncate(appendPosition);
+            throw e;
+        }
+        appendPosition = position;
+    }
+
+    private SpawnerRecord readRecord(long offset) throws IOException {
+        int length = readFully(4, offset).getInt();
+        ByteBuffer payload = readFully(length, offset + 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()));
+
+        if (in.readByte() != OP_PUT) {
+            throw new IOException("Expected a spawner record at offset " + offset);
+        }
+        String id = readString(in);
+        int version = in.readInt();
+        String world = readString(in);
+        int x = in.readInt();
+        int y = in.readInt();
+        int z = in.readInt();
+        String entityType = readString(in);
+        String settings = readString(in);
+        String filteredItems = readString(in);
+
+        int inventorySize = in.readInt();
+        List<String> inventory = new ArrayList<>(inventorySize);
+        for (int i = 0; i < inventorySize; i++) {
+            inventory.add(readString(in));
+        }
+
+        return new SpawnerRecord(id, version, world, x, y, z, entityType, settings, filteredItems, inventory);
+    }
+
+    private ByteBuffer readFully(int length, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of " + logFile.getName());
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private byte[] encodePut(SpawnerRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_PUT);
+        writeString(out, record.id());
+        out.writeInt(record.version());
+        writeString(out, record.world());
+        out.writeInt(record.x());
+        out.writeInt(record.y());
+        out.writeInt(record.z());
+        writeString(out, record.entityType());
+        writeString(out, record.settings());
+        writeString(out, record.filteredItems());
+
+        List<String> inventory = record.inventory();
+        out.writeInt(inventory.size());
+        for (String line : inventory) {
+            writeString(out, line);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] encodeDelete(String spawnerId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_DELETE);
+        writeString(out, spawnerId);
+        return bytes.toByteArray();
+    }
+
+    private static void writeFrame(ByteArrayOutputStream target, byte[] payload) throws IOException {
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.writeInt(checksum(payload));
+    }
+
+    private static void writeHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += target.write(header, position);
+        }
+        target.position(HEADER_SIZE);
+    }
+
+    // Length-prefixed UTF-8 with -1 for null, so long inventory lines are not capped like writeUTF
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private Path tempPath() {
+        return logFile.toPath().resolveSibling(logFile.getName() + ".tmp");
+    }
+
+    @Override
+    public int getDataVersion() {
+        // Every record carries the version it was written with
+        return currentVersion;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warning("Could not close " + logFile.getName() + ": " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
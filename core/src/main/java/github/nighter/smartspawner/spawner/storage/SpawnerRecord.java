@@ -0,0 +1,90 @@
+package github.nighter.smartspawner.spawner.storage;
+
+import github.nighter.smartspawner.spawner.properties.SpawnerData;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import github.nighter.smartspawner.spawner.utils.ItemStackSerializer;
+import org.bukkit.Location;
+import org.bukkit.Material;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Storage-neutral snapshot of one spawner, using the same string encodings as spawners_data.yml.
+ *
+ * Records can be moved between storage backends without the worlds being loaded,
+ * and are only turned into SpawnerData by the file handler.
+ *
+ * @param id The spawner ID
+ * @param version The data version the settings string was written with
+ * @param world The world name
+ * @param x The block X coordinate
+ * @param y The block Y coordinate
+ * @param z The block Z coordinate
+ * @param entityType The entity type name, may be null
+ * @param settings Comma separated settings in the format of the data version
+ * @param filteredItems Comma separated filtered materials, null if none
+ * @param inventory Serialized inventory lines from ItemStackSerializer
+ */
+public record SpawnerRecord(String id, int version, String world, int x, int y, int z,
+                            String entityType, String settings, String filteredItems,
+                            List<String> inventory) {
+
+    /**
+     * Creates a record from the current state of a spawner
+     *
+     * @param spawner The spawner to snapshot
+     * @param version The current data version
+     * @return The record
+     */
+    public static SpawnerRecord of(SpawnerData spawner, int version) {
+        Location loc = spawner.getSpawnerLocation();
+
+        // Settings format for version 3:
+        // exp,active,range,stop,delay,slots,maxExp,minMobs,maxMobs,stack,maxStack,time,atCapacity
+        String settings = String.format("%d,%b,%d,%b,%d,%d,%d,%d,%d,%d,%d,%d,%b",
+                spawner.getSpawnerExp(),
+                spawner.getSpawnerActive(),
+                spawner.getSpawnerRange(),
+                spawner.getSpawnerStop(),
+                spawner.getSpawnDelay(),
+                spawner.getMaxSpawnerLootSlots(),
+                spawner.getMaxStoredExp(),
+                spawner.getMinMobs(),
+                spawner.getMaxMobs(),
+                spawner.getStackSize(),
+                spawner.getMaxStackSize(),
+                spawner.getLastSpawnTime(),
+                spawner.getIsAtCapacity());
+
+        String filteredItems = null;
+        Set<Material> filtered = spawner.getFilteredItems();
+        if (filtered != null && !filtered.isEmpty()) {
+            filteredItems = filtered.stream()
+                    .map(Material::name)
+                    .collect(Collectors.joining(","));
+        }
+
+        List<String> inventory = Collections.emptyList();
+        VirtualInventory virtualInv = spawner.getVirtualInventory();
+        if (virtualInv != null) {
+            inventory = ItemStackSerializer.serializeInventory(virtualInv.getConsolidatedItems());
+        }
+
+        return new SpawnerRecord(spawner.getSpawnerId(), version, loc.getWorld().getName(),
+                loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                spawner.getEntityType() != null ? spawner.getEntityType().name() : null,
+                settings, filteredItems, inventory);
+    }
+
+    /**
+     * Gets the location in the "world,x,y,z" format of spawners_data.yml
+     *
+     * @return The location string
+     */
+    public String locationString() {
+        return world + "," + x + "," + y + "," + z;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package github.nighter.smartspawner.spawner.storage;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistence backend for spawner records.
+ *
+ * Write-behind batching, dirty tracking and conversion to SpawnerData stay in the file handler;
+ * a backend only stores and returns records. Calls may come from async tasks but are never
+ * made concurrently by the file handler.
+ */
+public interface SpawnerStorage {
+
+    /**
+     * Loads every stored spawner
+     *
+     * @return Map of spawner ID to record
+     */
+    Map<String, SpawnerRecord> loadAll();
+
+    /**
+     * Loads the spawners stored for the given worlds only
+     *
+     * @param worlds The world names
+     * @return Map of spawner ID to record
+     */
+    default Map<String, SpawnerRecord> loadWorlds(Collection<String> worlds) {
+        Set<String> worldSet = new HashSet<>(worlds);
+        Map<String, SpawnerRecord> records = loadAll();
+        records.values().removeIf(record -> !worldSet.contains(record.world()));
+        return records;
+    }
+
+    /**
+     * Inserts or replaces the given records
+     *
+     * @param records The records to write
+     * @throws IOException If the records could not be persisted
+     */
+    void write(Collection<SpawnerRecord> records) throws IOException;
+
+    /**
+     * Removes the given spawners, unknown IDs are ignored
+     *
+     * @param spawnerIds The IDs to remove
+     * @throws IOException If the removal could not be persisted
+     */
+    void delete(Collection<String> spawnerIds) throws IOException;
+
+    /**
+     * Replaces the whole store with the given records
+     *
+     * @param records The complete set of records
+     * @throws IOException If the records could not be persisted
+     */
+    void replaceAll(Collection<SpawnerRecord> records) throws IOException;
+
+    /**
+     * Gets the data version of the stored data
+     *
+     * @return The data version
+     */
+    int getDataVersion();
+
+    /**
+     * Releases any open files or connections
+     */
+    void close();
+}
\ No newline at end of file
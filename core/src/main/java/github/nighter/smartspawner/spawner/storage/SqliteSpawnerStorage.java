@@ -0,0 +1,209 @@
+package github.nighter.smartspawner.spawner.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.*;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Stores spawners in an embedded SQLite database, one row per spawner.
+ *
+ * Saves are batched upserts and deletes inside a single transaction, so their cost follows the
+ * number of dirty spawners. Rows are indexed by world and chunk so spawners can be loaded per
+ * world instead of all at once. Uses the SQLite driver that ships with the server.
+ */
+public class SqliteSpawnerStorage implements SpawnerStorage {
+    private static final String COLUMNS =
+            "id, data_version, world, x, y, z, chunk_x, chunk_z, entity_type, settings, filtered_items, inventory";
+    private static final String UPSERT_SQL =
+            "INSERT OR REPLACE INTO spawners (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM spawners WHERE id = ?";
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM spawners";
+    // Inventory lines never contain line breaks, so they are stored joined by one
+    private static final String INVENTORY_SEPARATOR = "\n";
+
+    private final File databaseFile;
+    private final int currentVersion;
+    private final Logger logger;
+    private final Connection connection;
+
+    public SqliteSpawnerStorage(File databaseFile, int currentVersion, Logger logger) throws IOException {
+        this.databaseFile = databaseFile;
+        this.currentVersion = currentVersion;
+        this.logger = logger;
+
+        try {
+            Class.forName("org.sqlite.JDBC");
+            this.connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            initializeSchema();
+        } catch (ClassNotFoundException | SQLException e) {
+            throw new IOException("Could not open " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void initializeSchema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS spawners (
+                        id TEXT PRIMARY KEY,
+                        data_version INTEGER NOT NULL,
+                        world TEXT NOT NULL,
+                        x INTEGER NOT NULL,
+                        y INTEGER NOT NULL,
+                        z INTEGER NOT NULL,
+                        chunk_x INTEGER NOT NULL,
+                        chunk_z INTEGER NOT NULL,
+                        entity_type TEXT,
+                        settings TEXT,
+                        filtered_items TEXT,
+                        inventory TEXT
+                    )""");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_spawners_chunk ON spawners (world, chunk_x, chunk_z)");
+        }
+    }
+
+    @Override
+    public synchronized Map<String, SpawnerRecord> loadAll() {
+        return query(SELECT_SQL, Collections.emptyList());
+    }
+
+    @Override
+    public synchronized Map<String, SpawnerRecord> loadWorlds(Collection<String> worlds) {
+        if (worlds.isEmpty()) return new LinkedHashMap<>();
+
+        String placeholders = String.join(", ", Collections.nCopies(worlds.size(), "?"));
+        return query(SELECT_SQL + " WHERE world IN (" + placeholders + ")", new ArrayList<>(worlds));
+    }
+
+    private Map<String, SpawnerRecord> query(String sql, List<String> parameters) {
+        Map<String, SpawnerRecord> records = new LinkedHashMap<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setString(i + 1, parameters.get(i));
+            }
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    SpawnerRecord record = readRecord(rs);
+                    records.put(record.id(), record);
+                }
+            }
+        } catch (SQLException e) {
+            logger.severe("Error loading spawners from " + databaseFile.getName());
+            e.printStackTrace();
+        }
+        return records;
+    }
+
+    private SpawnerRecord readRecord(ResultSet rs) throws SQLException {
+        String inventory = rs.getString("inventory");
+        List<String> lines = inventory == null || inventory.isEmpty()
+                ? Collections.emptyList()
+                : Arrays.asList(inventory.split(INVENTORY_SEPARATOR));
+
+        return new SpawnerRecord(
+                rs.getString("id"),
+                rs.getInt("data_version"),
+                rs.getString("world"),
+                rs.getInt("x"),
+                rs.getInt("y"),
+                rs.getInt("z"),
+                rs.getString("entity_type"),
+                rs.getString("settings"),
+                rs.getString("filtered_items"),
+                lines);
+    }
+
+    @Override
+    public synchronized void write(Collection<SpawnerRecord> records) throws IOException {
+        if (records.isEmpty()) return;
+        inTransaction(() -> upsert(records));
+    }
+
+    @Override
+    public synchronized void delete(Collection<String> spawnerIds) throws IOException {
+        if (spawnerIds.isEmpty()) return;
+
+        inTransaction(() -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+                for (String id : spawnerIds) {
+                    statement.setString(1, id);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public synchronized void replaceAll(Collection<SpawnerRecord> records) throws IOException {
+        inTransaction(() -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DELETE FROM spawners");
+            }
+            upsert(records);
+        });
+    }
+
+    private void upsert(Collection<SpawnerRecord> records) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+            for (SpawnerRecord record : records) {
+                statement.setString(1, record.id());
+                statement.setInt(2, record.version());
+                statement.setString(3, record.world());
+                statement.setInt(4, record.x());
+                statement.setInt(5, record.y());
+                statement.setInt(6, record.z());
+                statement.setInt(7, record.x() >> 4);
+                statement.setInt(8, record.z() >> 4);
+                statement.setString(9, record.entityType());
+                statement.setString(10, record.settings());
+                statement.setString(11, record.filteredItems());
+                statement.setString(12, String.join(INVENTORY_SEPARATOR, record.inventory()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    private void inTransaction(SqlWork work) throws IOException {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                work.run();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not write to " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int getDataVersion() {
+        // Every row carries the version it was written with
+        return currentVersion;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("Could not close " + databaseFile.getName() + ": " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
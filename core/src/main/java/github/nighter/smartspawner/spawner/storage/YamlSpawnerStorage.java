@@ -0,0 +1,177 @@
+package github.nighter.smartspawner.spawner.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Stores all spawners in a single spawners_data.yml document.
+ *
+ * Every write re-serializes the whole file, so the cost of a save grows with the number of
+ * stored spawners rather than the number of changed ones.
+ */
+public class YamlSpawnerStorage implements SpawnerStorage {
+    private static final String DATA_VERSION_KEY = "data_version";
+
+    private final Logger logger;
+    private final File spawnerDataFile;
+    private final int currentVersion;
+    private FileConfiguration spawnerData;
+
+    public YamlSpawnerStorage(File spawnerDataFile, int currentVersion, Logger logger) {
+        this.spawnerDataFile = spawnerDataFile;
+        this.currentVersion = currentVersion;
+        this.logger = logger;
+        setupSpawnerDataFile();
+    }
+
+    private void setupSpawnerDataFile() {
+        if (!spawnerDataFile.exists()) {
+            try {
+                spawnerDataFile.createNewFile();
+                String header = """
+                # Warning: Do not modify this file while the server is running!
+                # Format:
+                #  spawners:
+                #    spawnerId:
+                #      location: world,x,y,z
+                #      entityType: ENTITY_TYPE
+                #      settings: exp,active,range,stop,delay,slots,maxExp,minMobs,maxMobs,stack,maxStack,time,atCapacity
+                #      filteredItems: MATERIAL1,MATERIAL2,...
+                #      inventory:
+                #      - ITEM_TYPE:amount
+                """;
+
+                Files.write(spawnerDataFile.toPath(), header.getBytes(), StandardOpenOption.WRITE);
+
+                // Set data version
+                FileConfiguration config = YamlConfiguration.loadConfiguration(spawnerDataFile);
+                config.set(DATA_VERSION_KEY, currentVersion);
+                config.save(spawnerDataFile);
+            } catch (IOException e) {
+                logger.severe("Could not create " + spawnerDataFile.getName() + "!");
+                e.printStackTrace();
+            }
+        }
+
+        spawnerData = YamlConfiguration.loadConfiguration(spawnerDataFile);
+
+        // Check current data version
+        int version = spawnerData.getInt(DATA_VERSION_KEY, 1);
+        if (version < currentVersion) {
+            logger.info("Data version " + version + " detected. Current version is " + currentVersion + ".");
+            logger.info("A migration will be attempted when the plugin fully loads.");
+        }
+    }
+
+    @Override
+    public Map<String, SpawnerRecord> loadAll() {
+        Map<String, SpawnerRecord> records = new LinkedHashMap<>();
+
+        ConfigurationSection spawnersSection = spawnerData.getConfigurationSection("spawners");
+        if (spawnersSection == null) return records;
+
+        int version = getDataVersion();
+        for (String spawnerId : spawnersSection.getKeys(false)) {
+            SpawnerRecord record = readRecord(spawnerId, version);
+            if (record != null) {
+                records.put(spawnerId, record);
+            }
+        }
+        return records;
+    }
+
+    private SpawnerRecord readRecord(String spawnerId, int version) {
+        String path = "spawners." + spawnerId;
+
+        String locationString = spawnerData.getString(path + ".location");
+        if (locationString == null) {
+            logger.warning("Invalid location for spawner " + spawnerId);
+            return null;
+        }
+
+        String[] locParts = locationString.split(",");
+        if (locParts.length != 4) {
+            logger.warning("Invalid location format for spawner " + spawnerId);
+            return null;
+        }
+
+        try {
+            return new SpawnerRecord(spawnerId, version, locParts[0],
+                    Integer.parseInt(locParts[1]),
+                    Integer.parseInt(locParts[2]),
+                    Integer.parseInt(locParts[3]),
+                    spawnerData.getString(path + ".entityType"),
+                    spawnerData.getString(path + ".settings"),
+                    spawnerData.getString(path + ".filteredItems"),
+                    spawnerData.getStringList(path + ".inventory"));
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid location format for spawner " + spawnerId);
+            return null;
+        }
+    }
+
+    private void writeRecord(SpawnerRecord record) {
+        String path = "spawners." + record.id();
+        spawnerData.set(path + ".location", record.locationString());
+        spawnerData.set(path + ".entityType", record.entityType());
+        spawnerData.set(path + ".settings", record.settings());
+        spawnerData.set(path + ".filteredItems", record.filteredItems());
+        spawnerData.set(path + ".inventory", record.inventory());
+    }
+
+    @Override
+    public synchronized void write(Collection<SpawnerRecord> records) throws IOException {
+        if (records.isEmpty()) return;
+
+        // Ensure data version is up to date
+        spawnerData.set(DATA_VERSION_KEY, currentVersion);
+
+        for (SpawnerRecord record : records) {
+            writeRecord(record);
+        }
+        spawnerData.save(spawnerDataFile);
+    }
+
+    @Override
+    public synchronized void delete(Collection<String> spawnerIds) throws IOException {
+        if (spawnerIds.isEmpty()) return;
+
+        for (String id : spawnerIds) {
+            spawnerData.set("spawners." + id, null);
+        }
+        spawnerData.save(spawnerDataFile);
+    }
+
+    @Override
+    public synchronized void replaceAll(Collection<SpawnerRecord> records) throws IOException {
+        // Set data version
+        spawnerData.set(DATA_VERSION_KEY, currentVersion);
+
+        // Clear existing data
+        spawnerData.set("spawners", null);
+        spawnerData.createSection("spawners");
+
+        for (SpawnerRecord record : records) {
+            writeRecord(record);
+        }
+        spawnerData.save(spawnerDataFile);
+    }
+
+    @Override
+    public int getDataVersion() {
+        return spawnerData.getInt(DATA_VERSION_KEY, 1);
+    }
+
+    @Override
+    public void close() {
+        // Nothing is held open between saves
+    }
+}
\ No newline at end of file
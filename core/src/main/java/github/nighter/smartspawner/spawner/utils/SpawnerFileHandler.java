@@ -4,32 +4,30 @@ import github.nighter.smartspawner.SmartSpawner;
 import github.nighter.smartspawner.spawner.properties.SpawnerData;
 import github.nighter.smartspawner.spawner.properties.VirtualInventory;
 import github.nighter.smartspawner.Scheduler;
+import github.nighter.smartspawner.migration.SpawnerStorageMigration;
+import github.nighter.smartspawner.spawner.storage.LogSpawnerStorage;
+import github.nighter.smartspawner.spawner.storage.SpawnerRecord;
+import github.nighter.smartspawner.spawner.storage.SpawnerStorage;
+import github.nighter.smartspawner.spawner.storage.SqliteSpawnerStorage;
+import github.nighter.smartspawner.spawner.storage.YamlSpawnerStorage;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class SpawnerFileHandler {
     private final SmartSpawner plugin;
     private final Logger logger;
-    private File spawnerDataFile;
-    private FileConfiguration spawnerData;
+    private SpawnerStorage storage;
 
     // Data version identifier
-    private static final String DATA_VERSION_KEY = "data_version";
     private final int CURRENT_VERSION;
 
     // Write-behind caching strategy
@@ -46,53 +44,34 @@ public class SpawnerFileHandler {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.CURRENT_VERSION = plugin.getDATA_VERSION();
-        setupSpawnerDataFile();
+        setupStorage();
         startSaveTask();
     }
 
-    private void setupSpawnerDataFile() {
+    private void setupStorage() {
         if (!plugin.getDataFolder().exists()) {
             plugin.getDataFolder().mkdirs();
         }
 
-        spawnerDataFile = new File(plugin.getDataFolder(), "spawners_data.yml");
+        File yamlFile = new File(plugin.getDataFolder(), "spawners_data.yml");
+        String type = plugin.getConfig().getString("data_saving.storage", "log").toLowerCase(Locale.ROOT);
 
-        if (!spawnerDataFile.exists()) {
+        if (!type.equals("yaml")) {
             try {
-                spawnerDataFile.createNewFile();
-                String header = """
-                # Warning: Do not modify this file while the server is running!
-                # Format:
-                #  spawners:
-                #    spawnerId:
-                #      location: world,x,y,z
-                #      entityType: ENTITY_TYPE
-                #      settings: exp,active,range,stop,delay,slots,maxExp,minMobs,maxMobs,stack,maxStack,time,atCapacity
-                #      filteredItems: MATERIAL1,MATERIAL2,...
-                #      inventory:
-                #      - ITEM_TYPE:amount
-                """;
-
-                Files.write(spawnerDataFile.toPath(), header.getBytes(), StandardOpenOption.WRITE);
-
-                // Set data version
-                FileConfiguration config = YamlConfiguration.loadConfiguration(spawnerDataFile);
-                config.set(DATA_VERSION_KEY, CURRENT_VERSION);
-                config.save(spawnerDataFile);
+                if (type.equals("sqlite")) {
+                    storage = new SqliteSpawnerStorage(new File(plugin.getDataFolder(), "spawners_data.db"), CURRENT_VERSION, logger);
+                } else {
+                    storage = new LogSpawnerStorage(new File(plugin.getDataFolder(), "spawners_data.log"), CURRENT_VERSION, logger);
+                }
+                new SpawnerStorageMigration(plugin).migrateFromYaml(storage);
+                return;
             } catch (IOException e) {
-                logger.severe("Could not create spawners_data.yml!");
+                logger.severe("Could not open " + type + " storage, falling back to spawners_data.yml: " + e.getMessage());
                 e.printStackTrace();
             }
         }
 
-        spawnerData = YamlConfiguration.loadConfiguration(spawnerDataFile);
-
-        // Check current data version
-        int version = spawnerData.getInt(DATA_VERSION_KEY, 1);
-        if (version < CURRENT_VERSION) {
-            logger.info("Data version " + version + " detected. Current version is " + CURRENT_VERSION + ".");
-            logger.info("A migration will be attempted when the plugin fully loads.");
-        }
+        storage = new YamlSpawnerStorage(yamlFile, CURRENT_VERSION, logger);
     }
 
     private void startSaveTask() {
@@ -105,6 +84,7 @@ public class SpawnerFileHandler {
 
         saveTask = Scheduler.runTaskTimerAsync(() -> {
             plugin.debug("Running scheduled save task");
+            plugin.debug("Item signature cache: " + VirtualInventory.getSignatureCacheStats());
             flushChanges();
         }, intervalTicks, intervalTicks);
     }
@@ -140,10 +120,12 @@ public class SpawnerFileHandler {
 
         // Process asynchronously
         Scheduler.runTaskAsync(() -> {
+            Set<String> toUpdate = new HashSet<>();
+            Set<String> toDelete = new HashSet<>();
             try {
                 // Handle updates
                 if (!dirtySpawners.isEmpty()) {
-                    Set<String> toUpdate = new HashSet<>(dirtySpawners);
+                    toUpdate.addAll(dirtySpawners);
                     dirtySpawners.removeAll(toUpdate);
 
                     Map<String, SpawnerData> batch = new HashMap<>();
@@ -161,28 +143,25 @@ public class SpawnerFileHandler {
 
                 // Handle deletions
                 if (!deletedSpawners.isEmpty()) {
-                    Set<String> toDelete = new HashSet<>(deletedSpawners);
+                    toDelete.addAll(deletedSpawners);
                     deletedSpawners.removeAll(toDelete);
 
-                    for (String id : toDelete) {
-                        String path = "spawners." + id;
-                        spawnerData.set(path, null);
-                    }
-
-                    if (!toDelete.isEmpty()) {
-                        spawnerData.save(spawnerDataFile);
-                    }
+                    storage.delete(toDelete);
                 }
             } catch (Exception e) {
                 plugin.getLogger().severe("Error during flush: " + e.getMessage());
                 e.printStackTrace();
 
-                // Put failed operations back into the queue
-                for (String id : dirtySpawners) {
-                    dirtySpawners.add(id);
+                // Put failed operations back into the queue, unless they were re-marked meanwhile
+                for (String id : toUpdate) {
+                    if (!deletedSpawners.contains(id)) {
+                        dirtySpawners.add(id);
+                    }
                 }
-                for (String id : deletedSpawners) {
-                    deletedSpawners.add(id);
+                for (String id : toDelete) {
+                    if (!dirtySpawners.contains(id)) {
+                        deletedSpawners.add(id);
+                    }
                 }
             } finally {
                 isSaving = false;
@@ -190,170 +169,14 @@ public class SpawnerFileHandler {
         });
     }
 
-    private boolean saveSpawnerBatch(Map<String, SpawnerData> spawners) {
-        if (spawners.isEmpty()) return true;
-
-        try {
-            ConfigurationSection spawnersSection = spawnerData.getConfigurationSection("spawners");
-            if (spawnersSection == null) {
-                spawnersSection = spawnerData.createSection("spawners");
-            }
-
-            // Ensure data version is up to date
-            spawnerData.set(DATA_VERSION_KEY, CURRENT_VERSION);
-
-            for (Map.Entry<String, SpawnerData> entry : spawners.entrySet()) {
-                String spawnerId = entry.getKey();
-                SpawnerData spawner = entry.getValue();
-                String path = "spawners." + spawnerId;
-                Location loc = spawner.getSpawnerLocation();
-
-                spawnerData.set(path + ".location", String.format("%s,%d,%d,%d",
-                        loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()));
-
-                spawnerData.set(path + ".entityType", spawner.getEntityType() != null ?
-                        spawner.getEntityType().name() : null);
-
-                // Updated settings format for version 3:
-                // exp,active,range,stop,delay,slots,maxExp,minMobs,maxMobs,stack,maxStack,time,atCapacity
-                String settings = String.format("%d,%b,%d,%b,%d,%d,%d,%d,%d,%d,%d,%d,%b",
-                        spawner.getSpawnerExp(),
-                        spawner.getSpawnerActive(),
-                        spawner.getSpawnerRange(),
-                        spawner.getSpawnerStop(),
-                        spawner.getSpawnDelay(),
-                        spawner.getMaxSpawnerLootSlots(),
-                        spawner.getMaxStoredExp(),
-                        spawner.getMinMobs(),
-                        spawner.getMaxMobs(),
-                        spawner.getStackSize(),
-                        spawner.getMaxStackSize(),
-                        spawner.getLastSpawnTime(),
-                        spawner.getIsAtCapacity());
-
-                spawnerData.set(path + ".settings", settings);
-
-                // Save filtered items
-                Set<Material> filteredItems = spawner.getFilteredItems();
-                if (filteredItems != null && !filteredItems.isEmpty()) {
-                    List<String> materials = filteredItems.stream()
-                            .map(Material::name)
-                            .collect(Collectors.toList());
-                    spawnerData.set(path + ".filteredItems", String.join(",", materials));
-                } else {
-                    spawnerData.set(path + ".filteredItems", null);
-                }
-
-                VirtualInventory virtualInv = spawner.getVirtualInventory();
-                if (virtualInv != null) {
-                    Map<VirtualInventory.ItemSignature, Long> items = virtualInv.getConsolidatedItems();
-                    List<String> serializedItems = ItemStackSerializer.serializeInventory(items);
-                    spawnerData.set(path + ".inventory", serializedItems);
-                }
-            }
-
-            spawnerData.save(spawnerDataFile);
-            return true;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save spawner batch to file!");
-            e.printStackTrace();
-            return false;
-        }
-    }
-
-    public boolean saveAllSpawners(Map<String, SpawnerData> spawners) {
-        try {
-            // Cancel any pending save task
-            if (saveTask != null) {
-                saveTask.cancel();
-                saveTask = null;
-            }
-
-            // Clear any pending operations
-            dirtySpawners.clear();
-            deletedSpawners.clear();
-            isSaving = true;
-
-            // Set data version
-            spawnerData.set(DATA_VERSION_KEY, CURRENT_VERSION);
-
-            // Get or create spawners section
-            ConfigurationSection spawnersSection = spawnerData.getConfigurationSection("spawners");
-            if (spawnersSection == null) {
-                spawnersSection = spawnerData.createSection("spawners");
-            } else {
-                // Clear existing data
-                for (String key : spawnersSection.getKeys(false)) {
-                    spawnersSection.set(key, null);
-                }
-            }
-
-            // Save all current spawners
-            for (Map.Entry<String, SpawnerData> entry : spawners.entrySet()) {
-                String spawnerId = entry.getKey();
-                SpawnerData spawner = entry.getValue();
-                Location loc = spawner.getSpawnerLocation();
-                String path = "spawners." + spawnerId;
-
-                spawnerData.set(path + ".location", String.format("%s,%d,%d,%d",
-                        loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()));
-
-                spawnerData.set(path + ".entityType", spawner.getEntityType() != null ?
-                        spawner.getEntityType().name() : null);
-
-                // Updated settings format for v3
-                String settings = String.format("%d,%b,%d,%b,%d,%d,%d,%d,%d,%d,%d,%d,%b",
-                        spawner.getSpawnerExp(),
-                        spawner.getSpawnerActive(),
-                        spawner.getSpawnerRange(),
-                        spawner.getSpawnerStop(),
-                        spawner.getSpawnDelay(),
-                        spawner.getMaxSpawnerLootSlots(),
-                        spawner.getMaxStoredExp(),
-                        spawner.getMinMobs(),
-                        spawner.getMaxMobs(),
-                        spawner.getStackSize(),
-                        spawner.getMaxStackSize(),
-                        spawner.getLastSpawnTime(),
-                        spawner.getIsAtCapacity());
-
-                spawnerData.set(path + ".settings", settings);
-
-                // Save filtered items
-                Set<Material> filteredItems = spawner.getFilteredItems();
-                if (filteredItems != null && !filteredItems.isEmpty()) {
-                    List<String> materials = filteredItems.stream()
-                            .map(Material::name)
-                            .collect(Collectors.toList());
-                    spawnerData.set(path + ".filteredItems", String.join(",", materials));
-                }
+    private void saveSpawnerBatch(Map<String, SpawnerData> spawners) throws IOException {
+        if (spawners.isEmpty()) return;
 
-                VirtualInventory virtualInv = spawner.getVirtualInventory();
-                if (virtualInv != null) {
-                    Map<VirtualInventory.ItemSignature, Long> items = virtualInv.getConsolidatedItems();
-                    List<String> serializedItems = ItemStackSerializer.serializeInventory(items);
-                    spawnerData.set(path + ".inventory", serializedItems);
-                }
-            }
-
-            spawnerData.save(spawnerDataFile);
-            isSaving = false;
-
-            // Only restart save task if plugin is still enabled
-            if (plugin.isEnabled()) {
-                startSaveTask();
-            }
-            return true;
-        } catch (IOException e) {
-            logger.severe("Could not save spawners_data.yml!");
-            e.printStackTrace();
-            isSaving = false;
-            // Only restart save task if plugin is still enabled
-            if (plugin.isEnabled()) {
-                startSaveTask();
-            }
-            return false;
+        List<SpawnerRecord> records = new ArrayList<>(spawners.size());
+        for (SpawnerData spawner : spawners.values()) {
+            records.add(SpawnerRecord.of(spawner, CURRENT_VERSION));
         }
+        storage.write(records);
     }
 
     public boolean deleteSpawnerFromFile(String spawnerId) {
@@ -363,23 +186,33 @@ public class SpawnerFileHandler {
     }
 
     public Map<String, SpawnerData> loadAllSpawners() {
-        Map<String, SpawnerData> loadedSpawners = new HashMap<>();
+        // Spawners of worlds that are not loaded yet are picked up when their world loads
+        List<String> worlds = new ArrayList<>();
+        for (org.bukkit.World world : Bukkit.getWorlds()) {
+            worlds.add(world.getName());
+        }
+        return loadSpawners(storage.loadWorlds(worlds).values());
+    }
 
-        ConfigurationSection spawnersSection = spawnerData.getConfigurationSection("spawners");
-        if (spawnersSection == null) return loadedSpawners;
+    public Map<String, SpawnerData> loadWorldSpawners(String worldName) {
+        return loadSpawners(storage.loadWorlds(Collections.singletonList(worldName)).values());
+    }
+
+    private Map<String, SpawnerData> loadSpawners(Collection<SpawnerRecord> records) {
+        Map<String, SpawnerData> loadedSpawners = new HashMap<>();
 
         int loadedCount = 0;
         int errorCount = 0;
 
-        for (String spawnerId : spawnersSection.getKeys(false)) {
+        for (SpawnerRecord record : records) {
             try {
-                SpawnerData spawner = loadSpawnerFromConfig(spawnerId);
+                SpawnerData spawner = loadSpawnerFromRecord(record);
                 if (spawner != null) {
-                    loadedSpawners.put(spawnerId, spawner);
+                    loadedSpawners.put(record.id(), spawner);
                     loadedCount++;
                 }
             } catch (Exception e) {
-                logger.severe("Error loading spawner " + spawnerId);
+                logger.severe("Error loading spawner " + record.id());
                 e.printStackTrace();
                 errorCount++;
             }
@@ -389,33 +222,18 @@ public class SpawnerFileHandler {
         return loadedSpawners;
     }
 
-    private SpawnerData loadSpawnerFromConfig(String spawnerId) {
-        String path = "spawners." + spawnerId;
+    private SpawnerData loadSpawnerFromRecord(SpawnerRecord record) {
+        String spawnerId = record.id();
 
-        String locationString = spawnerData.getString(path + ".location");
-        if (locationString == null) {
-            logger.warning("Invalid location for spawner " + spawnerId);
-            return null;
-        }
-
-        String[] locParts = locationString.split(",");
-        if (locParts.length != 4) {
-            logger.warning("Invalid location format for spawner " + spawnerId);
-            return null;
-        }
-
-        org.bukkit.World world = Bukkit.getWorld(locParts[0]);
+        org.bukkit.World world = Bukkit.getWorld(record.world());
         if (world == null) {
-            logger.warning("World not found for spawner " + spawnerId + ": " + locParts[0]);
+            logger.warning("World not found for spawner " + spawnerId + ": " + record.world());
             return null;
         }
 
-        Location location = new Location(world,
-                Integer.parseInt(locParts[1]),
-                Integer.parseInt(locParts[2]),
-                Integer.parseInt(locParts[3]));
+        Location location = new Location(world, record.x(), record.y(), record.z());
 
-        String entityTypeString = spawnerData.getString(path + ".entityType");
+        String entityTypeString = record.entityType();
         if (entityTypeString == null) {
             logger.warning("Missing entity type for spawner " + spawnerId);
             return null;
@@ -431,43 +249,32 @@ public class SpawnerFileHandler {
 
         SpawnerData spawner = new SpawnerData(spawnerId, location, entityType, plugin);
 
-        String settingsString = spawnerData.getString(path + ".settings");
+        String settingsString = record.settings();
         if (settingsString != null) {
             String[] settings = settingsString.split(",");
 
-            // Handle version differences based on data version
-            int version = spawnerData.getInt(DATA_VERSION_KEY, 1);
+            // Handle version differences based on the version the record was written with
+            int version = record.version();
 
             try {
                 if (version >= 3) {
                     // Version 3 format
                     if (settings.length >= 13) {
+                        // Range, delay, slots, max exp and mob counts come from the spawner profile
+                        spawner.setStackSize(Integer.parseInt(settings[9]));
                         spawner.setSpawnerExp(Integer.parseInt(settings[0]));
                         spawner.setSpawnerActive(Boolean.parseBoolean(settings[1]));
-                        spawner.setSpawnerRange(Integer.parseInt(settings[2]));
                         spawner.setSpawnerStop(Boolean.parseBoolean(settings[3]));
-                        spawner.setSpawnDelay(Integer.parseInt(settings[4]));
-                        spawner.setMaxSpawnerLootSlots(Integer.parseInt(settings[5]));
-                        spawner.setMaxStoredExp(Integer.parseInt(settings[6]));
-                        spawner.setMinMobs(Integer.parseInt(settings[7]));
-                        spawner.setMaxMobs(Integer.parseInt(settings[8]));
-                        spawner.setStackSize(Integer.parseInt(settings[9]));
                         spawner.setMaxStackSize(Integer.parseInt(settings[10]));
                         spawner.setLastSpawnTime(Long.parseLong(settings[11]));
                         spawner.setIsAtCapacity(Boolean.parseBoolean(settings[12]));
                     }
                 } else {
                     // Version 1-2 format (handle missing fields with defaults)
+                    spawner.setStackSize(Integer.parseInt(settings[9]));
                     spawner.setSpawnerExp(Integer.parseInt(settings[0]));
                     spawner.setSpawnerActive(Boolean.parseBoolean(settings[1]));
-                    spawner.setSpawnerRange(Integer.parseInt(settings[2]));
                     spawner.setSpawnerStop(Boolean.parseBoolean(settings[3]));
-                    spawner.setSpawnDelay(Integer.parseInt(settings[4]));
-                    spawner.setMaxSpawnerLootSlots(Integer.parseInt(settings[5]));
-                    spawner.setMaxStoredExp(Integer.parseInt(settings[6]));
-                    spawner.setMinMobs(Integer.parseInt(settings[7]));
-                    spawner.setMaxMobs(Integer.parseInt(settings[8]));
-                    spawner.setStackSize(Integer.parseInt(settings[9]));
                     spawner.setLastSpawnTime(Long.parseLong(settings[10]));
                     // Default values for new fields
                     spawner.setIsAtCapacity(false);
@@ -481,7 +288,7 @@ public class SpawnerFileHandler {
         }
 
         // Load filtered items
-        String filteredItemsStr = spawnerData.getString(path + ".filteredItems");
+        String filteredItemsStr = record.filteredItems();
         if (filteredItemsStr != null && !filteredItemsStr.isEmpty()) {
             String[] materialNames = filteredItemsStr.split(",");
             for (String materialName : materialNames) {
@@ -494,7 +301,7 @@ public class SpawnerFileHandler {
             }
         }
 
-        List<String> inventoryData = spawnerData.getStringList(path + ".inventory");
+        List<String> inventoryData = record.inventory();
         VirtualInventory virtualInv = new VirtualInventory(spawner.getMaxSpawnerLootSlots());
 
         if (inventoryData != null && !inventoryData.isEmpty()) {
@@ -529,7 +336,7 @@ public class SpawnerFileHandler {
     }
 
     public int getDataVersion() {
-        return spawnerData.getInt(DATA_VERSION_KEY, 1);
+        return storage.getDataVersion();
     }
 
     public void shutdown() {
@@ -560,12 +367,7 @@ public class SpawnerFileHandler {
 
                 // Process deletions
                 if (!deletedSpawners.isEmpty()) {
-                    for (String id : deletedSpawners) {
-                        String path = "spawners." + id;
-                        spawnerData.set(path, null);
-                    }
-
-                    spawnerData.save(spawnerDataFile);
+                    storage.delete(new ArrayList<>(deletedSpawners));
                 }
 
                 dirtySpawners.clear();
@@ -577,5 +379,7 @@ public class SpawnerFileHandler {
                 isSaving = false;
             }
         }
+
+        storage.close();
     }
 }
\ No newline at end of file
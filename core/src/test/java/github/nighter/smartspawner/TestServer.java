@@ -0,0 +1,152 @@
+package github.nighter.smartspawner;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.UnsafeValues;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Minimal Bukkit server for tests that work with item stacks outside a running server.
+ *
+ * Item meta is a bag of the properties set through its setters, such as the display name, lore,
+ * damage and custom model data. Metas are equal when they hold the same properties, while the
+ * serialized form lists them in the order they were set, the way NBT tag order depends on how an
+ * item was built. Every other server call returns a default value.
+ */
+public final class TestServer {
+    private static boolean installed;
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Method method, Object[] args);
+    }
+
+    private TestServer() {
+    }
+
+    public static synchronized void install() {
+        if (installed || Bukkit.getServer() != null) {
+            installed = true;
+            return;
+        }
+
+        ItemFactory itemFactory = proxy(ItemFactory.class, (method, args) -> switch (method.getName()) {
+            // An empty meta equals a missing one, as on the server
+            case "equals" -> propertiesOf(args[0]).equals(propertiesOf(args[1]));
+            case "getItemMeta" -> meta(new LinkedHashMap<>());
+            case "isApplicable" -> true;
+            case "asMetaFor" -> ((ItemMeta) args[0]).clone();
+            case "updateMaterial" -> args[1];
+            default -> null;
+        });
+
+        // Stands in for the NBT form: material, amount and the meta properties in the order they were set
+        UnsafeValues unsafe = proxy(UnsafeValues.class, (method, args) -> {
+            if (!method.getName().equals("serializeItem")) return null;
+            ItemStack item = (ItemStack) args[0];
+            StringBuilder form = new StringBuilder(item.getType().name()).append(':').append(item.getAmount());
+            Map<String, Object> properties = item.hasItemMeta() ? propertiesOf(item.getItemMeta()) : Map.of();
+            properties.forEach((key, value) -> form.append(';').append(key).append('=').append(value));
+            return form.toString().getBytes(StandardCharsets.UTF_8);
+        });
+
+        Logger logger = Logger.getLogger("TestServer");
+        Server server = proxy(Server.class, (method, args) -> switch (method.getName()) {
+            case "getLogger" -> logger;
+            case "getItemFactory" -> itemFactory;
+            case "getUnsafe" -> unsafe;
+            default -> method.getReturnType() == String.class ? "test" : null;
+        });
+
+        Bukkit.setServer(server);
+        installed = true;
+    }
+
+    // Holds the properties of one meta, in the order they were first set
+    private record MetaHandler(Map<String, Object> properties) implements InvocationHandler {
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) {
+            String name = method.getName();
+            int arity = args == null ? 0 : args.length;
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (name) {
+                    case "equals" -> args[0] != null && Proxy.isProxyClass(args[0].getClass())
+                            && Proxy.getInvocationHandler(args[0]) instanceof MetaHandler other
+                            && properties.equals(other.properties);
+                    case "hashCode" -> properties.hashCode();
+                    default -> "ItemMeta" + properties;
+                };
+            }
+            if (name.equals("clone")) {
+                return meta(new LinkedHashMap<>(properties));
+            }
+            if (name.startsWith("set") && arity == 1) {
+                if (args[0] == null) {
+                    properties.remove(name.substring(3));
+                } else {
+                    properties.put(name.substring(3), args[0]);
+                }
+                return null;
+            }
+            if (name.startsWith("has") && arity == 0) {
+                return properties.containsKey(name.substring(3));
+            }
+            if (arity == 0 && (name.startsWith("get") || name.startsWith("is"))) {
+                Object value = properties.get(name.substring(name.startsWith("is") ? 2 : 3));
+                return value != null ? value : defaultValue(method.getReturnType());
+            }
+            return defaultValue(method.getReturnType());
+        }
+    }
+
+    private static ItemMeta meta(Map<String, Object> properties) {
+        return (ItemMeta) Proxy.newProxyInstance(ItemMeta.class.getClassLoader(),
+                new Class<?>[]{ItemMeta.class, Damageable.class}, new MetaHandler(properties));
+    }
+
+    // Properties of a meta built here, a missing meta has none
+    private static Map<String, Object> propertiesOf(Object meta) {
+        if (meta == null) return Map.of();
+        if (Proxy.isProxyClass(meta.getClass()) && Proxy.getInvocationHandler(meta) instanceof MetaHandler handler) {
+            return handler.properties();
+        }
+        throw new IllegalArgumentException("Not a test item meta: " + meta);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> self == args[0];
+                    case "hashCode" -> System.identityHashCode(self);
+                    default -> type.getSimpleName();
+                };
+            }
+            Object result = handler.invoke(method, args);
+            return result != null ? result : defaultValue(method.getReturnType());
+        }));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0F;
+        if (type == double.class) return 0D;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        return 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package github.nighter.smartspawner.extras;
+
+import github.nighter.smartspawner.TestServer;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Which items a hopper check moves from spawner storage into the hopper below it.
+ */
+class HopperFillTest {
+    static final int HOPPER_SLOTS = 5;
+    static final Material[] DROPS = {
+            Material.BONE, Material.ARROW, Material.ROTTEN_FLESH,
+            Material.STRING, Material.GUNPOWDER, Material.SPIDER_EYE
+    };
+
+    @FunctionalInterface
+    interface Transfer {
+        int run(VirtualInventory virtualInv, Inventory hopperInv, int maxStacks);
+    }
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @Test
+    void bothPassesMoveTheSameItems() {
+        for (Transfer transfer : new Transfer[]{HopperFillTest::displayInventoryTransfer, HopperHandler::fillHopper}) {
+            VirtualInventory storage = storage(1000, DROPS);
+            ItemStack[] slots = new ItemStack[HOPPER_SLOTS];
+
+            assertEquals(HOPPER_SLOTS, transfer.run(storage, hopperInventory(slots), HOPPER_SLOTS));
+            long moved = 0;
+            for (ItemStack slot : slots) {
+                assertNotNull(slot);
+                assertEquals(slot.getMaxStackSize(), slot.getAmount());
+                moved += slot.getAmount();
+            }
+            assertEquals(1000L * DROPS.length - moved, storage.getTotalItems());
+        }
+    }
+
+    @Test
+    void topsUpAPartialStackBeforeUsingEmptySlots() {
+        VirtualInventory storage = storage(100, Material.BONE);
+        ItemStack[] slots = new ItemStack[HOPPER_SLOTS];
+        slots[0] = new ItemStack(Material.BONE, 10);
+
+        assertEquals(2, HopperHandler.fillHopper(storage, hopperInventory(slots), HOPPER_SLOTS));
+        assertEquals(64, slots[0].getAmount());
+        assertEquals(46, slots[1].getAmount());
+        assertNull(slots[2]);
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    void skipsFullAndUnrelatedSlots() {
+        VirtualInventory storage = storage(200, Material.BONE);
+        ItemStack[] slots = new ItemStack[HOPPER_SLOTS];
+        slots[0] = new ItemStack(Material.DIRT, 10);
+        slots[1] = new ItemStack(Material.BONE, 64);
+
+        assertEquals(3, HopperHandler.fillHopper(storage, hopperInventory(slots), HOPPER_SLOTS));
+        assertEquals(Material.DIRT, slots[0].getType());
+        assertEquals(10, slots[0].getAmount());
+        assertEquals(64, slots[1].getAmount());
+        for (int i = 2; i < HOPPER_SLOTS; i++) {
+            assertEquals(Material.BONE, slots[i].getType());
+            assertEquals(64, slots[i].getAmount());
+        }
+        assertEquals(200 - 3 * 64, storage.getTotalItems());
+    }
+
+    @Test
+    void movesAtMostMaxStacks() {
+        VirtualInventory storage = storage(1000, DROPS);
+        ItemStack[] slots = new ItemStack[HOPPER_SLOTS];
+
+        assertEquals(2, HopperHandler.fillHopper(storage, hopperInventory(slots), 2));
+        assertNotNull(slots[0]);
+        assertNotNull(slots[1]);
+        assertNull(slots[2]);
+        assertEquals(1000L * DROPS.length - 128, storage.getTotalItems());
+    }
+
+    @Test
+    void movesTheLastItemsAsOnePartialStack() {
+        VirtualInventory storage = storage(10, Material.BONE);
+        ItemStack[] slots = new ItemStack[HOPPER_SLOTS];
+
+        assertEquals(1, HopperHandler.fillHopper(storage, hopperInventory(slots), HOPPER_SLOTS));
+        assertEquals(10, slots[0].getAmount());
+        assertNull(slots[1]);
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    void emptyStorageMovesNothing() {
+        ItemStack[] slots = new ItemStack[HOPPER_SLOTS];
+
+        assertEquals(0, HopperHandler.fillHopper(new VirtualInventory(45), hopperInventory(slots), HOPPER_SLOTS));
+        assertArrayEquals(new ItemStack[HOPPER_SLOTS], slots);
+    }
+
+    private static VirtualInventory storage(long amountPerDrop, Material... drops) {
+        VirtualInventory storage = new VirtualInventory(45);
+        Map<VirtualInventory.ItemSignature, Long> counts = new HashMap<>();
+        for (Material drop : drops) {
+            counts.put(VirtualInventory.getSignature(new ItemStack(drop)), amountPerDrop);
+        }
+        storage.addItemCounts(counts);
+        return storage;
+    }
+
+    // The pass before transfers worked on stored counts, kept as the baseline for the benchmark
+    static int displayInventoryTransfer(VirtualInventory virtualInv, Inventory hopperInv, int itemsPerTransfer) {
+        int transferred = 0;
+        Map<Integer, ItemStack> displayItems = virtualInv.getDisplayInventory();
+        List<ItemStack> itemsToRemove = new ArrayList<>();
+
+        for (Map.Entry<Integer, ItemStack> entry : displayItems.entrySet()) {
+            if (transferred >= itemsPerTransfer) break;
+
+            ItemStack item = entry.getValue();
+            if (item == null || item.getType() == Material.AIR) continue;
+
+            ItemStack[] hopperContents = hopperInv.getContents();
+            for (int i = 0; i < hopperContents.length; i++) {
+                if (transferred >= itemsPerTransfer) break;
+
+                ItemStack hopperItem = hopperContents[i];
+                if (hopperItem == null || hopperItem.getType() == Material.AIR) {
+                    hopperInv.setItem(i, item.clone());
+                    itemsToRemove.add(item);
+                    transferred++;
+                    break;
+                } else if (hopperItem.isSimilar(item) &&
+                        hopperItem.getAmount() < hopperItem.getMaxStackSize()) {
+                    int space = hopperItem.getMaxStackSize() - hopperItem.getAmount();
+                    int toTransfer = Math.min(space, item.getAmount());
+
+                    hopperItem.setAmount(hopperItem.getAmount() + toTransfer);
+
+                    ItemStack toRemove = item.clone();
+                    toRemove.setAmount(toTransfer);
+                    itemsToRemove.add(toRemove);
+
+                    transferred++;
+                    break;
+                }
+            }
+        }
+
+        if (!itemsToRemove.isEmpty()) {
+            virtualInv.removeItems(itemsToRemove);
+        }
+        return transferred;
+    }
+
+    // Hopper inventory over a plain array, getContents copies the array but shares the stacks like the server does
+    static Inventory hopperInventory(ItemStack[] slots) {
+        return (Inventory) Proxy.newProxyInstance(Inventory.class.getClassLoader(), new Class<?>[]{Inventory.class},
+                (self, method, args) -> switch (method.getName()) {
+                    case "getSize" -> slots.length;
+                    case "getItem" -> slots[(int) args[0]];
+                    case "setItem" -> {
+                        slots[(int) args[0]] = (ItemStack) args[1];
+                        yield null;
+                    }
+                    case "getContents" -> slots.clone();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package github.nighter.smartspawner.extras;
+
+import github.nighter.smartspawner.TestServer;
+import github.nighter.smartspawner.spawner.properties.VirtualInventory;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transfers per second for one hopper under a stacked spawner, the stored-count pass against the
+ * display inventory pass it replaced.
+ *
+ * A transfer is one hopper check moving up to stack_per_transfer stacks. The hopper is emptied after
+ * every check, as if it fed a chest line, so each check has all of its slots to fill.
+ */
+@Tag("benchmark")
+class HopperTransferBenchmarkTest {
+    private static final int STACKS_PER_TRANSFER = 5;
+    // One storage page of a stacked skeleton and zombie farm
+    private static final int STORAGE_SLOTS = 45;
+    private static final long STOCK_PER_DROP = 1_000_000;
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 5_000_000_000L;
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @Test
+    void transfersPerSecondPerHopper() {
+        double display = measure(HopperFillTest::displayInventoryTransfer);
+        double counts = measure(HopperHandler::fillHopper);
+
+        System.out.println("Hopper transfers per second for one hopper, " + STACKS_PER_TRANSFER + " stacks each");
+        System.out.printf("  display inventory and removeItems: %,.0f%n", display);
+        System.out.printf("  stored counts:                     %,.0f%n", counts);
+        System.out.printf("  Speedup %.1fx%n", counts / display);
+    }
+
+    private static double measure(HopperFillTest.Transfer transfer) {
+        VirtualInventory storage = stockedStorage();
+        ItemStack[] slots = new ItemStack[HopperFillTest.HOPPER_SLOTS];
+        Inventory hopper = HopperFillTest.hopperInventory(slots);
+
+        run(transfer, storage, hopper, slots, WARMUP_NANOS);
+        long[] result = run(transfer, storage, hopper, slots, MEASURE_NANOS);
+        assertEquals(result[0] * STACKS_PER_TRANSFER, result[1], "every transfer fills the whole hopper");
+        return result[0] * 1e9 / MEASURE_NANOS;
+    }
+
+    // Returns the number of transfers and of stacks moved in the given time
+    private static long[] run(HopperFillTest.Transfer transfer, VirtualInventory storage, Inventory hopper,
+                              ItemStack[] slots, long nanos) {
+        long transfers = 0;
+        long stacks = 0;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 100; i++) {
+                stacks += transfer.run(storage, hopper, STACKS_PER_TRANSFER);
+                Arrays.fill(slots, null);
+                transfers++;
+            }
+            if (storage.getTotalItems() < STOCK_PER_DROP) {
+                restock(storage);
+            }
+        }
+        return new long[]{transfers, stacks};
+    }
+
+    private static VirtualInventory stockedStorage() {
+        VirtualInventory storage = new VirtualInventory(STORAGE_SLOTS);
+        restock(storage);
+        return storage;
+    }
+
+    private static void restock(VirtualInventory storage) {
+        Map<VirtualInventory.ItemSignature, Long> counts = new HashMap<>();
+        for (Material drop : HopperFillTest.DROPS) {
+            VirtualInventory.ItemSignature sig = VirtualInventory.getSignature(new ItemStack(drop));
+            counts.put(sig, STOCK_PER_DROP - storage.getAmount(sig));
+        }
+        storage.addItemCounts(counts);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package github.nighter.smartspawner.spawner.lootgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Distribution parity between LootSampler and the per-mob loop SpawnerLootGenerator used before it.
+ *
+ * Every branch of the sampler is compared against the loop with a two-sample chi-square test on the
+ * drawn counts, plus mean and variance checks against the exact binomial or uniform-sum moments.
+ * All sources are seeded, so a failure is reproducible rather than flaky.
+ */
+class LootSamplerTest {
+    private static final int SAMPLES = 20_000;
+    // Upper 0.1% point of the standard normal, used for the chi-square critical value
+    private static final double Z_CRITICAL = 3.090;
+
+    // The loop SpawnerLootGenerator ran for each loot item before sampling
+    private static int rollEachMob(int mobs, double chancePercent, Random random) {
+        int successes = 0;
+        for (int i = 0; i < mobs; i++) {
+            if (random.nextDouble() * 100 <= chancePercent) {
+                successes++;
+            }
+        }
+        return successes;
+    }
+
+    private static long rollEachDrop(int drops, int min, int max, Random random) {
+        long total = 0;
+        for (int i = 0; i < drops; i++) {
+            total += random.nextInt(max - min + 1) + min;
+        }
+        return total;
+    }
+
+    @Test
+    void smallBatchesMatchTheLoopExactly() {
+        // Up to 16 rolls the sampler consumes the same random values as the loop
+        Random sampled = new Random(1);
+        Random looped = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            int mobs = 1 + i % 16;
+            assertEquals(rollEachMob(mobs, 35.0, looped), LootSampler.sampleBinomial(mobs, 0.35, sampled));
+        }
+    }
+
+    @Test
+    void smallAmountSumsMatchTheLoopExactly() {
+        Random sampled = new Random(2);
+        Random looped = new Random(2);
+        for (int i = 0; i < SAMPLES; i++) {
+            int drops = 1 + i % 16;
+            assertEquals(rollEachDrop(drops, 1, 3, looped), LootSampler.sampleUniformSum(drops, 1, 3, sampled));
+        }
+    }
+
+    @Test
+    void inversionMatchesTheLoop() {
+        // Mean 5, sampled by walking the CDF
+        assertBinomialParity(100, 5.0, 3);
+    }
+
+    @Test
+    void mirroredInversionMatchesTheLoop() {
+        // p > 0.5 is sampled as the complement, whose mean 6 falls into inversion
+        assertBinomialParity(40, 85.0, 4);
+    }
+
+    @Test
+    void normalApproximationMatchesTheLoop() {
+        // Mean 300 and variance 210, well inside the range where the approximation is used
+        assertBinomialParity(1000, 30.0, 5);
+    }
+
+    @Test
+    void mirroredNormalApproximationMatchesTheLoop() {
+        // The complement has mean 50 and is still skewed enough to need the correction
+        assertBinomialParity(500, 90.0, 6);
+    }
+
+    @Test
+    void normalApproximationMatchesTheLoopAtTheInversionLimit() {
+        // Mean 10 is where the approximation takes over and the binomial is most skewed
+        assertBinomialParity(100, 10.0, 10);
+        assertBinomialParity(1000, 1.0, 11);
+    }
+
+    @Test
+    void largeAmountSumsMatchTheLoop() {
+        assertUniformSumParity(200, 1, 3, 7);
+    }
+
+    @Test
+    void amountSumsMatchTheLoopJustAboveTheDirectThreshold() {
+        assertUniformSumParity(17, 1, 2, 12);
+        assertUniformSumParity(17, 1, 8, 13);
+    }
+
+    @Test
+    void edgeCasesAreExact() {
+        Random random = new Random(9);
+        assertEquals(0, LootSampler.sampleBinomial(0, 0.5, random));
+        assertEquals(0, LootSampler.sampleBinomial(1000, 0.0, random));
+        assertEquals(1000, LootSampler.sampleBinomial(1000, 1.0, random));
+        assertEquals(0, LootSampler.sampleUniformSum(0, 1, 3, random));
+        assertEquals(2000, LootSampler.sampleUniformSum(1000, 2, 2, random));
+    }
+
+    private static void assertUniformSumParity(int drops, int min, int max, long seed) {
+        long[] sampled = new long[SAMPLES];
+        long[] looped = new long[SAMPLES];
+        Random sampledRandom = new Random(seed);
+        Random loopedRandom = new Random(seed * 31 + 1);
+        for (int i = 0; i < SAMPLES; i++) {
+            sampled[i] = LootSampler.sampleUniformSum(drops, min, max, sampledRandom);
+            looped[i] = rollEachDrop(drops, min, max, loopedRandom);
+            assertTrue(sampled[i] >= (long) drops * min && sampled[i] <= (long) drops * max);
+        }
+
+        int span = max - min + 1;
+        double mean = drops * (min + max) / 2.0;
+        double variance = drops * (span * span - 1.0) / 12.0;
+        assertMoments(sampled, mean, variance);
+        assertMoments(looped, mean, variance);
+        assertSameDistribution(sampled, looped);
+    }
+
+    private static void assertBinomialParity(int mobs, double chancePercent, long seed) {
+        long[] sampled = new long[SAMPLES];
+        long[] looped = new long[SAMPLES];
+        Random sampledRandom = new Random(seed);
+        Random loopedRandom = new Random(seed * 31 + 1);
+        for (int i = 0; i < SAMPLES; i++) {
+            sampled[i] = LootSampler.sampleBinomial(mobs, chancePercent / 100, sampledRandom);
+            looped[i] = rollEachMob(mobs, chancePercent, loopedRandom);
+            assertTrue(sampled[i] >= 0 && sampled[i] <= mobs);
+        }
+
+        double p = chancePercent / 100;
+        assertMoments(sampled, mobs * p, mobs * p * (1 - p));
+        assertMoments(looped, mobs * p, mobs * p * (1 - p));
+        assertSameDistribution(sampled, looped);
+    }
+
+    // Sample mean within 4 standard errors, sample variance within 10% of the exact values
+    private static void assertMoments(long[] values, double mean, double variance) {
+        double sum = 0;
+        for (long value : values) sum += value;
+        double sampleMean = sum / values.length;
+
+        double squares = 0;
+        for (long value : values) squares += (value - sampleMean) * (value - sampleMean);
+        double sampleVariance = squares / (values.length - 1);
+
+        double standardError = Math.sqrt(variance / values.length);
+        assertEquals(mean, sampleMean, 4 * standardError, "mean");
+        assertEquals(variance, sampleVariance, 0.1 * variance, "variance");
+    }
+
+    /**
+     * Two-sample chi-square test of homogeneity between equally sized samples.
+     * Values are grouped into bins holding at least 10 combined observations.
+     */
+    private static void assertSameDistribution(long[] first, long[] second) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long value : first) { min = Math.min(min, value); max = Math.max(max, value); }
+        for (long value : second) { min = Math.min(min, value); max = Math.max(max, value); }
+
+        int range = (int) (max - min + 1);
+        long[] firstCounts = new long[range];
+        long[] secondCounts = new long[range];
+        for (long value : first) firstCounts[(int) (value - min)]++;
+        for (long value : second) secondCounts[(int) (value - min)]++;
+
+        double statistic = 0;
+        int bins = 0;
+        long binFirst = 0;
+        long binSecond = 0;
+        for (int i = 0; i < range; i++) {
+            binFirst += firstCounts[i];
+            binSecond += secondCounts[i];
+            if (binFirst + binSecond >= 10) {
+                statistic += sq(binFirst - binSecond) / (binFirst + binSecond);
+                bins++;
+                binFirst = 0;
+                binSecond = 0;
+            }
+        }
+        // Whatever is left of the sparse upper tail forms a final bin
+        if (binFirst + binSecond > 0) {
+            statistic += sq(binFirst - binSecond) / (binFirst + binSecond);
+            bins++;
+        }
+
+        int degrees = Math.max(1, bins - 1);
+        double critical = chiSquareCritical(degrees);
+        assertTrue(statistic < critical,
+                "chi-square " + statistic + " exceeds " + critical + " at " + degrees + " degrees of freedom");
+    }
+
+    // Wilson-Hilferty approximation of the upper 0.1% chi-square quantile
+    private static double chiSquareCritical(int degrees) {
+        double h = 2.0 / (9.0 * degrees);
+        double root = 1 - h + Z_CRITICAL * Math.sqrt(h);
+        return degrees * root * root * root;
+    }
+
+    private static double sq(double value) {
+        return value * value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory footprint of the stored amounts of 100k simulated spawners, ItemAmountTable against the
+ * ConcurrentHashMap of signature to boxed Long it replaced.
+ *
+ * Signatures are interned and shared by every spawner, so the keys are measured once and left out
+ * of both totals. Amounts are drawn above the Long cache, as stacked spawners store more than 127
+ * of an item within minutes.
+ */
+@Tag("benchmark")
+class ItemAmountTableFootprintTest {
+    private static final int SPAWNERS = 100_000;
+    // Distinct loot items across all entity types
+    private static final int SIGNATURES = 64;
+
+    @Test
+    void footprintAcross100kSpawners() {
+        // Stand-ins for the interned signatures, which hash by identity
+        Object[] keys = new Object[SIGNATURES];
+        for (int i = 0; i < SIGNATURES; i++) {
+            keys[i] = new Object();
+        }
+
+        Random random = new Random(17);
+        Object[] tables = new Object[SPAWNERS];
+        Object[] maps = new Object[SPAWNERS];
+        long entries = 0;
+        for (int s = 0; s < SPAWNERS; s++) {
+            ItemAmountTable table = new ItemAmountTable();
+            Map<Object, Long> map = new ConcurrentHashMap<>();
+            int distinct = distinctItems(random);
+            int first = random.nextInt(SIGNATURES);
+            for (int i = 0; i < distinct; i++) {
+                int id = (first + i) % SIGNATURES;
+                long amount = 128 + random.nextInt(100_000);
+                table.put(id, amount);
+                map.put(keys[id], amount);
+            }
+            tables[s] = table;
+            maps[s] = map;
+            entries += distinct;
+        }
+
+        long tableBytes = GraphLayout.parseInstance(tables).totalSize();
+        long mapBytes = GraphLayout.parseInstance(maps).subtract(GraphLayout.parseInstance(keys)).totalSize();
+
+        System.out.printf("Stored amounts of %,d spawners holding %,d items%n", SPAWNERS, entries);
+        System.out.printf("  ConcurrentHashMap<ItemSignature, Long>: %,d bytes, %.1f per spawner%n",
+                mapBytes, (double) mapBytes / SPAWNERS);
+        System.out.printf("  ItemAmountTable:                        %,d bytes, %.1f per spawner%n",
+                tableBytes, (double) tableBytes / SPAWNERS);
+        System.out.printf("  Saved %.1f%%%n", 100.0 * (mapBytes - tableBytes) / mapBytes);
+    }
+
+    @Test
+    void footprintByDistinctItems() {
+        Object[] keys = new Object[SIGNATURES];
+        for (int i = 0; i < SIGNATURES; i++) {
+            keys[i] = new Object();
+        }
+        GraphLayout keyLayout = GraphLayout.parseInstance(keys);
+
+        System.out.println("Bytes for one spawner by number of distinct items");
+        System.out.println("  items       map     table");
+        // 16 is the last size kept in the sorted arrays, 17 is the first in the hash table
+        for (int distinct : new int[]{1, 2, 4, 8, 9, 16, 17, 32}) {
+            ItemAmountTable table = new ItemAmountTable();
+            Map<Object, Long> map = new ConcurrentHashMap<>();
+            for (int id = 0; id < distinct; id++) {
+                table.put(id, 1000L + id);
+                map.put(keys[id], 1000L + id);
+            }
+
+            long tableBytes = GraphLayout.parseInstance(table).totalSize();
+            long mapBytes = GraphLayout.parseInstance(map).subtract(keyLayout).totalSize();
+            System.out.printf("  %5d  %8d  %8d%n", distinct, mapBytes, tableBytes);
+        }
+    }
+
+    // Most spawners hold a handful of items, a few hold many after filters or mixed drops
+    private static int distinctItems(Random random) {
+        return random.nextInt(10) == 0 ? 10 + random.nextInt(31) : 1 + random.nextInt(9);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stored amounts of ItemAmountTable in both of its modes, checked against a plain map, and its size
+ * against the ConcurrentHashMap of signature to boxed Long it replaced.
+ */
+class ItemAmountTableTest {
+    @Test
+    void storesUpdatesAndRemovesInSmallMode() {
+        ItemAmountTable table = new ItemAmountTable();
+        table.put(7, 100);
+        table.put(3, 30);
+        table.put(7, 150);
+
+        assertEquals(2, table.size());
+        assertEquals(150, table.get(7));
+        assertEquals(30, table.get(3));
+        assertEquals(0, table.get(5));
+
+        table.put(3, 0);
+        assertEquals(1, table.size());
+        assertEquals(0, table.get(3));
+        // Removing an id that is not stored changes nothing
+        table.put(42, 0);
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void keepsEveryAmountWhenPromotedPastTheSmallArrays() {
+        ItemAmountTable table = new ItemAmountTable();
+        for (int id = 0; id < 40; id++) {
+            table.put(id * 13, 1000L + id);
+        }
+
+        assertEquals(40, table.size());
+        for (int id = 0; id < 40; id++) {
+            assertEquals(1000L + id, table.get(id * 13));
+        }
+        assertEquals(40, snapshot(table).size());
+    }
+
+    @Test
+    void matchesAMapUnderRandomUpdates() {
+        Random random = new Random(22);
+        ItemAmountTable table = new ItemAmountTable();
+        Map<Integer, Long> reference = new HashMap<>();
+
+        for (int step = 0; step < 100_000; step++) {
+            // Few ids so the table keeps crossing between small and hashed mode
+            int id = random.nextInt(48);
+            long amount = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(1_000_000);
+            table.put(id, amount);
+            if (amount == 0) {
+                reference.remove(id);
+            } else {
+                reference.put(id, amount);
+            }
+
+            if (step % 1000 == 0) {
+                assertEquals(reference, snapshot(table));
+            }
+        }
+        assertEquals(reference.size(), table.size());
+        for (int id = 0; id < 48; id++) {
+            assertEquals((long) reference.getOrDefault(id, 0L), table.get(id));
+        }
+    }
+
+    @Test
+    void emptiedHashedTableStartsSmallAgain() {
+        ItemAmountTable table = new ItemAmountTable();
+        for (int id = 0; id < 32; id++) {
+            table.put(id, 5);
+        }
+        for (int id = 0; id < 32; id++) {
+            table.put(id, 0);
+        }
+
+        assertEquals(0, table.size());
+        assertTrue(snapshot(table).isEmpty());
+        table.put(9, 99);
+        assertEquals(99, table.get(9));
+        assertEquals(Map.of(9, 99L), snapshot(table));
+    }
+
+    @Test
+    void forEachWhileStopsWhenTheVisitorReturnsFalse() {
+        for (int entries : new int[]{8, 32}) {
+            ItemAmountTable table = new ItemAmountTable();
+            for (int id = 0; id < entries; id++) {
+                table.put(id, 1);
+            }
+
+            List<Integer> visited = new ArrayList<>();
+            table.forEachWhile((id, amount) -> {
+                visited.add(id);
+                return visited.size() < 3;
+            });
+            assertEquals(3, visited.size());
+        }
+    }
+
+    @Test
+    void smallerThanTheMapItReplaced() {
+        Object[] keys = new Object[64];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Object();
+        }
+        GraphLayout keyLayout = GraphLayout.parseInstance((Object) keys);
+
+        // Spawners holding fewer than 10 distinct items, which is most of them
+        for (int distinct = 1; distinct < 10; distinct++) {
+            ItemAmountTable table = new ItemAmountTable();
+            Map<Object, Long> map = new ConcurrentHashMap<>();
+            for (int id = 0; id < distinct; id++) {
+                table.put(id, 1000L + id);
+                map.put(keys[id], 1000L + id);
+            }
+
+            long tableBytes = GraphLayout.parseInstance(table).totalSize();
+            long mapBytes = GraphLayout.parseInstance(map).subtract(keyLayout).totalSize();
+            assertTrue(tableBytes < mapBytes, distinct + " items: table " + tableBytes + ", map " + mapBytes);
+        }
+    }
+
+    private static Map<Integer, Long> snapshot(ItemAmountTable table) {
+        Map<Integer, Long> entries = new HashMap<>();
+        table.forEach((id, amount) -> assertNull(entries.put(id, amount), "id " + id + " visited twice"));
+        return entries;
+    }
+}
\ No newline at end of file
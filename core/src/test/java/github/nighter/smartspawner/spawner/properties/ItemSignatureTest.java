@@ -0,0 +1,103 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import github.nighter.smartspawner.TestServer;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Signatures of items that are equal but serialize differently.
+ *
+ * The test server serializes meta in the order it was set, so an item built in two orders has two
+ * byte keys, as a stack read back from a real hopper or player inventory can differ from the loot
+ * prototype it was created from.
+ */
+class ItemSignatureTest {
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    // Built the way a loot prototype sets its meta
+    private static ItemStack prototype(String name) {
+        ItemStack item = new ItemStack(Material.IRON_SWORD);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(name);
+        meta.setLore(List.of("Dropped by a stacked spawner", "Tier 2"));
+        meta.setCustomModelData(7);
+        ((Damageable) meta).setDamage(12);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    // The same item with its meta applied in the reverse order
+    private static ItemStack roundTripped(String name) {
+        ItemStack item = new ItemStack(Material.IRON_SWORD);
+        ItemMeta meta = item.getItemMeta();
+        ((Damageable) meta).setDamage(12);
+        meta.setCustomModelData(7);
+        meta.setLore(List.of("Dropped by a stacked spawner", "Tier 2"));
+        meta.setDisplayName(name);
+        item.setItemMeta(meta);
+        return new ItemStack(item);
+    }
+
+    @Test
+    void equalItemsWithDifferentBytesInternToOneSignature() {
+        ItemStack prototype = prototype("Guardian Blade");
+        ItemStack roundTripped = roundTripped("Guardian Blade");
+        // The case under test: similar items whose serialized forms differ
+        assertTrue(prototype.isSimilar(roundTripped));
+        assertFalse(Arrays.equals(prototype.serializeAsBytes(), roundTripped.serializeAsBytes()));
+
+        VirtualInventory.ItemSignature signature = VirtualInventory.ItemSignature.intern(prototype);
+        assertSame(signature, VirtualInventory.ItemSignature.intern(roundTripped));
+        assertSame(signature, VirtualInventory.ItemSignature.intern(roundTripped.clone()));
+        assertSame(signature, VirtualInventory.ItemSignature.intern(prototype("Guardian Blade")));
+    }
+
+    @Test
+    void storedItemsCanBeRemovedInTheOtherForm() {
+        VirtualInventory inventory = new VirtualInventory(45);
+        List<ItemStack> stored = new ArrayList<>();
+        List<ItemStack> returned = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            stored.add(prototype("Warden Edge"));
+            returned.add(roundTripped("Warden Edge"));
+        }
+
+        inventory.addItems(stored);
+        assertEquals(3, inventory.getTotalItems());
+        assertTrue(inventory.removeItems(returned));
+        assertTrue(inventory.isEmpty());
+    }
+
+    @Test
+    void differentItemsKeepTheirOwnSignatures() {
+        VirtualInventory.ItemSignature named = VirtualInventory.ItemSignature.intern(prototype("Ember Fang"));
+        assertNotSame(named, VirtualInventory.ItemSignature.intern(prototype("Frost Fang")));
+
+        ItemStack damaged = prototype("Ember Fang");
+        ItemMeta meta = damaged.getItemMeta();
+        ((Damageable) meta).setDamage(40);
+        damaged.setItemMeta(meta);
+        assertNotSame(named, VirtualInventory.ItemSignature.intern(damaged));
+
+        assertNotSame(named, VirtualInventory.ItemSignature.intern(new ItemStack(Material.IRON_SWORD)));
+    }
+
+    @Test
+    void amountIsNotPartOfTheSignature() {
+        assertSame(VirtualInventory.ItemSignature.intern(new ItemStack(Material.BONE)),
+                VirtualInventory.ItemSignature.intern(new ItemStack(Material.BONE, 37)));
+    }
+}
\ No newline at end of file
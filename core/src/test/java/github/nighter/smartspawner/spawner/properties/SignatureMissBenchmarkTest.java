@@ -0,0 +1,137 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import github.nighter.smartspawner.TestServer;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Signature lookups per second on a miss of the ItemStack cache, the getItemMeta hash and isSimilar
+ * equality that signatures used before against the serialized key they are interned by now.
+ *
+ * Every lookup starts from a fresh stack that is equal to an item already stored, as loot generation
+ * hands over new stacks each cycle. The test server serializes items with a simple stand-in, so the
+ * absolute numbers for the serialized key leave out the cost of the real NBT writer.
+ */
+@Tag("benchmark")
+class SignatureMissBenchmarkTest {
+    private static final Material[] DROPS = {
+            Material.BONE, Material.ARROW, Material.ROTTEN_FLESH,
+            Material.STRING, Material.GUNPOWDER, Material.SPIDER_EYE
+    };
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 5_000_000_000L;
+
+    // The signature before it was interned: hashed from getItemMeta, compared with isSimilar
+    private static final class MetaKey {
+        private final ItemStack template;
+        private final int hashCode;
+
+        MetaKey(ItemStack item) {
+            this.template = item.clone();
+            this.template.setAmount(1);
+            int result = 31 * template.getType().ordinal();
+            result = 31 * result + (int) template.getDurability();
+            if (template.hasItemMeta()) {
+                ItemMeta meta = template.getItemMeta();
+                result = 31 * result + (meta.hasDisplayName() ? meta.getDisplayName().hashCode() : 0);
+                result = 31 * result + (meta.hasLore() ? meta.getLore().hashCode() : 0);
+                result = 31 * result + (meta.hasEnchants() ? meta.getEnchants().hashCode() : 0);
+            }
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MetaKey that)) return false;
+            if (template.getType() != that.template.getType() ||
+                    template.getDurability() != that.template.getDurability()) {
+                return false;
+            }
+            boolean thisHasMeta = template.hasItemMeta();
+            if (thisHasMeta != that.template.hasItemMeta()) {
+                return false;
+            }
+            return !thisHasMeta || template.isSimilar(that.template);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    @BeforeAll
+    static void installServer() {
+        TestServer.install();
+    }
+
+    @Test
+    void lookupsPerSecondOnCacheMiss() {
+        System.out.println("Signature lookups per second for a stack not in the ItemStack cache");
+        report("plain drops", i -> new ItemStack(DROPS[i % DROPS.length], 1 + i % 64));
+        report("named and damaged swords", i -> namedSword("Blade " + i % DROPS.length, i % DROPS.length));
+    }
+
+    private static void report(String label, Function<Integer, ItemStack> items) {
+        // The stored keys a fresh stack is matched against
+        Map<MetaKey, Integer> stored = new HashMap<>();
+        for (int i = 0; i < DROPS.length; i++) {
+            stored.put(new MetaKey(items.apply(i)), i);
+        }
+
+        double metaKeys = measure(items, item -> stored.get(new MetaKey(item)));
+        double interned = measure(items, VirtualInventory.ItemSignature::intern);
+
+        System.out.println("  " + label);
+        System.out.printf("    getItemMeta hash and isSimilar: %,.0f%n", metaKeys);
+        System.out.printf("    serialized key:                 %,.0f%n", interned);
+        System.out.printf("    Ratio %.2fx%n", interned / metaKeys);
+    }
+
+    private static double measure(Function<Integer, ItemStack> items, Function<ItemStack, Object> lookup) {
+        // Fresh stacks are built ahead so only the lookup is timed
+        ItemStack[] batch = new ItemStack[1024];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = items.apply(i);
+        }
+
+        run(batch, lookup, WARMUP_NANOS);
+        long lookups = run(batch, lookup, MEASURE_NANOS);
+        return lookups * 1e9 / MEASURE_NANOS;
+    }
+
+    private static long run(ItemStack[] batch, Function<ItemStack, Object> lookup, long nanos) {
+        long lookups = 0;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            for (ItemStack item : batch) {
+                assertNotNull(lookup.apply(item));
+            }
+            lookups += batch.length;
+        }
+        return lookups;
+    }
+
+    private static ItemStack namedSword(String name, int damage) {
+        ItemStack item = new ItemStack(Material.IRON_SWORD);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(name);
+        meta.setLore(List.of("Dropped by a stacked spawner"));
+        ((Damageable) meta).setDamage(damage);
+        item.setItemMeta(meta);
+        return item;
+    }
+}
\ No newline at end of file
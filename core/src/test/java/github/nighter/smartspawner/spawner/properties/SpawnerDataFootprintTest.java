@@ -0,0 +1,37 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bytes per spawner of the SpawnerData state before and after it moved from boxed fields to
+ * primitives and packed flag bits, using the boxed copy kept in SpawnerDataLayoutTest.
+ */
+@Tag("benchmark")
+class SpawnerDataFootprintTest {
+    @Test
+    void bytesPerSpawner() {
+        long boxedInstance = ClassLayout.parseClass(SpawnerDataLayoutTest.BoxedStateSpawnerData.class).instanceSize();
+        long integerBox = ClassLayout.parseClass(Integer.class).instanceSize();
+        long longBox = ClassLayout.parseClass(Long.class).instanceSize();
+        long boxed = SpawnerDataLayoutTest.boxedBytesPerSpawner();
+
+        long packedInstance = ClassLayout.parseClass(SpawnerData.class).instanceSize();
+        long flagWord = ClassLayout.parseClass(AtomicInteger.class).instanceSize();
+        long packed = SpawnerDataLayoutTest.packedBytesPerSpawner();
+
+        System.out.println("Bytes per spawner for SpawnerData and the state objects it owns");
+        System.out.printf("  boxed:  %d instance + %d Integer exp + %d Long spawn time = %d%n",
+                boxedInstance, integerBox, longBox, boxed);
+        System.out.printf("  packed: %d instance + %d AtomicInteger flags = %d%n",
+                packedInstance, flagWord, packed);
+        System.out.printf("  Saved %d bytes per spawner, %,d bytes per 100k spawners%n",
+                boxed - packed, (boxed - packed) * 100_000);
+        // Each exp or spawn time update also allocated a new box before, and allocates nothing now
+        System.out.printf("  Allocated per setSpawnerExp above 127: %d before, 0 after%n", integerBox);
+        System.out.printf("  Allocated per setLastSpawnTime: %d before, 0 after%n", longBox);
+    }
+}
\ No newline at end of file
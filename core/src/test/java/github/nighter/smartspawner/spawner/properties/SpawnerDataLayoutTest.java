@@ -0,0 +1,94 @@
+package github.nighter.smartspawner.spawner.properties;
+
+import github.nighter.smartspawner.SmartSpawner;
+import github.nighter.smartspawner.commands.hologram.SpawnerHologram;
+import github.nighter.smartspawner.spawner.loot.EntityLootConfig;
+import github.nighter.smartspawner.spawner.loot.EntityLootRegistry;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Layout of the SpawnerData state against the boxed fields it replaced, primitives and packed flag
+ * bits must take fewer bytes per spawner.
+ *
+ * The boxed layout is kept as a field-for-field copy of SpawnerData with only the state fields
+ * changed back, so the two shallow sizes differ by exactly that change.
+ */
+class SpawnerDataLayoutTest {
+    // SpawnerData with its state in boxed Integer, Long and Boolean fields
+    @SuppressWarnings("unused")
+    static final class BoxedStateSpawnerData {
+        private SmartSpawner plugin;
+        private EntityLootRegistry lootRegistry;
+        private String spawnerId;
+        private Location spawnerLocation;
+        private ReentrantLock lock;
+        private Integer spawnerExp;
+        private Boolean spawnerActive;
+        private Boolean spawnerStop;
+        private Boolean isAtCapacity;
+        private Long lastSpawnTime;
+        private EntityType entityType;
+        private EntityLootConfig lootConfig;
+        private int stackSize;
+        private int maxStackSize;
+        private VirtualInventory virtualInventory;
+        private Set<Material> filteredItems;
+        private Object lootTableCache;
+        private Object lootTableLock;
+        private SpawnerHologram hologram;
+        private long cachedSpawnDelay;
+    }
+
+    @Test
+    void boxedCopyOnlyDiffersInTheStateFields() {
+        Set<String> boxed = instanceFieldNames(BoxedStateSpawnerData.class);
+        boxed.removeAll(Set.of("spawnerActive", "spawnerStop", "isAtCapacity"));
+        Set<String> packed = instanceFieldNames(SpawnerData.class);
+        packed.remove("flags");
+
+        assertEquals(boxed, packed, "update BoxedStateSpawnerData to match the fields of SpawnerData");
+    }
+
+    @Test
+    void packedStateIsSmallerThanBoxed() {
+        long boxed = boxedBytesPerSpawner();
+        long packed = packedBytesPerSpawner();
+        assertTrue(packed < boxed, "packed " + packed + " bytes, boxed " + boxed + " bytes");
+    }
+
+    // Stored exp above 127 and every spawn time are fresh boxes owned by one spawner,
+    // the Boolean states point at the shared TRUE and FALSE instances
+    static long boxedBytesPerSpawner() {
+        return ClassLayout.parseClass(BoxedStateSpawnerData.class).instanceSize()
+                + ClassLayout.parseClass(Integer.class).instanceSize()
+                + ClassLayout.parseClass(Long.class).instanceSize();
+    }
+
+    static long packedBytesPerSpawner() {
+        return ClassLayout.parseClass(SpawnerData.class).instanceSize()
+                + ClassLayout.parseClass(AtomicInteger.class).instanceSize();
+    }
+
+    private static Set<String> instanceFieldNames(Class<?> type) {
+        Set<String> names = new TreeSet<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                names.add(field.getName());
+            }
+        }
+        return names;
+    }
+}
\ No newline at end of file